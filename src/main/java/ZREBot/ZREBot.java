@@ -1,10 +1,15 @@
 package ZREBot;
 
 import ZREBot.config.BotConfig;
-import ZREBot.database.DatabaseManager;
 import ZREBot.events.*;
 import ZREBot.repositories.EventNameRepository;
 import ZREBot.repositories.PostgresEventNameRepository;
+import ZREBot.repositories.ReactorSnapshotRepository;
+import ZREBot.services.EventNameSearchService;
+import ZREBot.services.MemberResolver;
+import ZREBot.services.ReactorIndexService;
+import ZREBot.services.RosterCache;
+import ZREBot.services.VoidCheckerService;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.entities.Activity;
@@ -15,6 +20,11 @@ public class ZREBot {
     private BotConfig config;
     private PostgresEventNameRepository eventNameRepository;
     private EventNameRepository oldEventNameRepository;
+    private ReactorSnapshotRepository reactorSnapshotRepository;
+    private ReactorIndexService reactorIndexService;
+    private RosterCache rosterCache;
+    private VoidCheckerService voidCheckerService;
+    private EventNameSearchService eventNameSearchService;
 
     public ZREBot() {
         this.config = new BotConfig();
@@ -30,17 +40,23 @@ public class ZREBot {
                 return;
             }
 
-            DatabaseManager dbManager = DatabaseManager.getInstance();
-            if (!dbManager.testConnection()) {
-                System.err.println("Failed to connect to database! Please check your database configuration.");
-                return;
-            }
-            System.out.println("Database connection successful!");
-
             this.eventNameRepository = new PostgresEventNameRepository();
+            if (eventNameRepository.isDegraded()) {
+                System.err.println("Failed to connect to database! Starting in degraded mode from the local event name replica.");
+            } else {
+                System.out.println("Database connection successful!");
+            }
 
             this.oldEventNameRepository = new EventNameRepository();
-            migrateOldDataIfNeeded();
+            if (!eventNameRepository.isDegraded()) {
+                migrateOldDataIfNeeded();
+            }
+
+            this.eventNameSearchService = new EventNameSearchService(config, eventNameRepository);
+            this.reactorSnapshotRepository = new ReactorSnapshotRepository();
+            this.reactorIndexService = new ReactorIndexService(config);
+            this.rosterCache = new RosterCache(config, reactorIndexService);
+            this.voidCheckerService = new VoidCheckerService(config, eventNameRepository, reactorSnapshotRepository, reactorIndexService, rosterCache, new MemberResolver(config));
 
             this.jda = JDABuilder.createDefault(token)
                     .setActivity(Activity.streaming(config.getStatusText(), config.getStatusUrl()))
@@ -52,6 +68,7 @@ public class ZREBot {
 //                            GatewayIntent.GUILD_MESSAGE_REACTIONS
                     )
                     .addEventListeners(
+                            new ButtonEventListener(this),
                             new CommandEventListener(this),
                             new GuildEventListener(this),
                             new MessageEventListener(this),
@@ -77,15 +94,15 @@ public class ZREBot {
         try {
 
             var oldData = oldEventNameRepository.getAllEventNames();
-            var newData = eventNameRepository.getAllEventNames();
+            boolean hasNewData = eventNameRepository.hasAnyEventNames();
 
-            if (!oldData.isEmpty() && newData.isEmpty()) {
+            if (!oldData.isEmpty() && !hasNewData) {
                 System.out.println("Found old data (" + oldData.size() + " entries). Starting migration...");
                 eventNameRepository.migrateFromOldRepository(oldEventNameRepository);
                 System.out.println("Migration completed successfully!");
-            } else if (!oldData.isEmpty() && !newData.isEmpty()) {
+            } else if (!oldData.isEmpty()) {
                 System.out.println("Both old and new data exist. Skipping automatic migration.");
-                System.out.println("Old data: " + oldData.size() + " entries, New data: " + newData.size() + " entries");
+                System.out.println("Old data: " + oldData.size() + " entries");
             } else {
                 System.out.println("No migration needed.");
             }
@@ -103,6 +120,26 @@ public class ZREBot {
         return eventNameRepository;
     }
 
+    public EventNameSearchService getEventNameSearchService() {
+        return eventNameSearchService;
+    }
+
+    public ReactorSnapshotRepository getReactorSnapshotRepository() {
+        return reactorSnapshotRepository;
+    }
+
+    public ReactorIndexService getReactorIndexService() {
+        return reactorIndexService;
+    }
+
+    public RosterCache getRosterCache() {
+        return rosterCache;
+    }
+
+    public VoidCheckerService getVoidCheckerService() {
+        return voidCheckerService;
+    }
+
     @Deprecated
     public EventNameRepository getOldEventNameRepository() {
         return oldEventNameRepository;
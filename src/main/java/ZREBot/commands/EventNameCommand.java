@@ -3,8 +3,12 @@ package ZREBot.commands;
 import ZREBot.ZREBot;
 import ZREBot.models.EventNameData;
 import ZREBot.repositories.PostgresEventNameRepository;
+import ZREBot.services.EventNameSearchService;
 import ZREBot.utils.EmbedUtils;
+import ZREBot.utils.NameUtils;
 import ZREBot.utils.PermissionUtils;
+import ZREBot.utils.TimeUtils;
+import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
@@ -12,12 +16,17 @@ import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
+import net.dv8tion.jda.api.interactions.components.buttons.Button;
 import net.dv8tion.jda.api.interactions.components.text.TextInput;
 import net.dv8tion.jda.api.interactions.components.text.TextInputStyle;
 import net.dv8tion.jda.api.interactions.modals.Modal;
+import net.dv8tion.jda.api.requests.restaction.WebhookMessageCreateAction;
 
 import java.awt.Color;
+import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class EventNameCommand implements Command {
     private final ZREBot bot;
@@ -31,7 +40,8 @@ public class EventNameCommand implements Command {
             "check", "Check a user's event name (moderator only)"
     )
             .addOption(OptionType.USER, "user", "The user to check", false)
-            .addOption(OptionType.STRING, "name", "Query an eventname", false);
+            .addOption(OptionType.STRING, "name", "Query an eventname", false)
+            .addOption(OptionType.STRING, "as-of", "Show the name the user had at this time (date, ISO time, or Discord timestamp)", false);
 
     public EventNameCommand(ZREBot bot) {
         this.bot = bot;
@@ -91,6 +101,7 @@ public class EventNameCommand implements Command {
 
         OptionMapping userOption = event.getOption("user");
         OptionMapping nameOption = event.getOption("name");
+        OptionMapping asOfOption = event.getOption("as-of");
 
         User user = userOption != null ? userOption.getAsUser() : null;
         String queryName = nameOption != null ? nameOption.getAsString() : null;
@@ -102,11 +113,30 @@ public class EventNameCommand implements Command {
             return;
         }
 
+        Instant asOf = null;
+        if (asOfOption != null) {
+            asOf = TimeUtils.parseInstant(asOfOption.getAsString());
+            if (asOf == null) {
+                event.replyEmbeds(EmbedUtils.createWarningEmbed(
+                        "Couldn't read `" + asOfOption.getAsString() + "` as a time. Use a date like `2024-05-01`, an ISO time, or a Discord timestamp"
+                )).setEphemeral(true).queue();
+                return;
+            }
+            if (user == null) {
+                event.replyEmbeds(EmbedUtils.createWarningEmbed(
+                        "`as-of` looks up one user's name history, so it needs the `user` option"
+                )).setEphemeral(true).queue();
+                return;
+            }
+        }
+
         // Defer reply for database operations
         event.deferReply(true).queue();
 
         try {
-            if (user != null && queryName != null) {
+            if (asOf != null) {
+                checkUserAt(event, user, queryName, asOf);
+            } else if (user != null && queryName != null) {
                 checkUserAndName(event, user, queryName);
             } else if (user != null) {
                 checkUser(event, user);
@@ -122,36 +152,58 @@ public class EventNameCommand implements Command {
     }
 
     private void checkUserAndName(SlashCommandInteractionEvent event, User user, String queryName) {
-        EventNameData userData = repository.getEventNameByUserAndName(user.getId(), queryName);
-
-        if (userData == null) {
-            event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
-                    "There was no event name data matching both `" + user.getName() + "` and `" + queryName + "`"
-            )).queue();
-            return;
-        }
-
-        String date = "<t:" + (long)(userData.getTimestamp() / 1000) + ":R>";
-
-        event.getHook().sendMessageEmbeds(EmbedUtils.createEmbed(
-                Color.BLUE,
-                "🌍 **" + user.getName() + "'s Event Name Information:** \n\n" +
-                        "> **Name:** `" + userData.getName() + "` \n" +
-                        "> **Date Submitted:** " + date + " \n\n" +
-                        "Please note: this was their most recent name submission, and is what their name should be ingame (or their discord name)"
-        )).queue();
+        repository.getEventNameByUserAndNameAsync(user.getId(), queryName).whenComplete((userData, error) -> {
+            if (error != null) {
+                replyLookupError(event, error);
+            } else if (userData == null) {
+                event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
+                        "There was no event name data matching both `" + user.getName() + "` and `" + queryName + "`"
+                )).queue();
+            } else {
+                sendUserInfo(event, user, userData);
+            }
+        });
     }
 
     private void checkUser(SlashCommandInteractionEvent event, User user) {
-        EventNameData userData = repository.getEventNameByUser(user.getId());
+        repository.getEventNameByUserAsync(user.getId()).whenComplete((userData, error) -> {
+            if (error != null) {
+                replyLookupError(event, error);
+            } else if (userData == null) {
+                event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
+                        "There is no event name data for `" + user.getName() + "`"
+                )).queue();
+            } else {
+                sendUserInfo(event, user, userData);
+            }
+        });
+    }
 
-        if (userData == null) {
-            event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
-                    "There is no event name data for `" + user.getName() + "`"
-            )).queue();
-            return;
-        }
+    private void checkUserAt(SlashCommandInteractionEvent event, User user, String queryName, Instant asOf) {
+        String time = "<t:" + asOf.getEpochSecond() + ":f>";
+
+        repository.getEventNameAtAsync(user.getId(), asOf).whenComplete((userData, error) -> {
+            if (error != null) {
+                replyLookupError(event, error);
+            } else if (userData == null || (queryName != null && !NameUtils.normalize(userData.getName()).equals(NameUtils.normalize(queryName)))) {
+                event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
+                        queryName != null
+                                ? "`" + user.getName() + "` did not have `" + queryName + "` registered at " + time
+                                : "`" + user.getName() + "` had no event name registered at " + time
+                )).queue();
+            } else {
+                event.getHook().sendMessageEmbeds(EmbedUtils.createEmbed(
+                        Color.BLUE,
+                        "🌍 **" + user.getName() + "'s Event Name at " + time + ":** \n\n" +
+                                "> **Name:** `" + userData.getName() + "` \n" +
+                                "> **Submitted:** <t:" + (long)(userData.getTimestamp() / 1000) + ":R> \n\n" +
+                                "Please note: this is the name they had registered at that time, which may differ from their current one"
+                )).queue();
+            }
+        });
+    }
 
+    private void sendUserInfo(SlashCommandInteractionEvent event, User user, EventNameData userData) {
         String date = "<t:" + (long)(userData.getTimestamp() / 1000) + ":R>";
 
         event.getHook().sendMessageEmbeds(EmbedUtils.createEmbed(
@@ -164,33 +216,37 @@ public class EventNameCommand implements Command {
     }
 
     private void checkName(SlashCommandInteractionEvent event, String queryName) {
-        List<EventNameData> queryData = repository.searchEventNameByName(queryName);
-
-        if (queryData.isEmpty()) {
-            event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
-                    "No data found matching `" + queryName + "`"
-            )).queue();
-            return;
-        }
-
-        StringBuilder outputString = new StringBuilder("🌍 **Event Name Data Matching `" + queryName + "`**\n\n");
+        EventNameSearchService searchService = bot.getEventNameSearchService();
+        searchService.startSearch(queryName).thenCompose(view -> {
+            if (view.getPage().isEmpty()) {
+                event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
+                        "No data found matching `" + queryName + "`"
+                )).queue();
+                return CompletableFuture.completedFuture(null);
+            }
 
-        for (EventNameData data : queryData) {
-            try {
-                User qUser = event.getJDA().retrieveUserById(data.getUserId()).complete();
-                if (qUser != null) {
-                    outputString.append("> **").append(qUser.getName()).append("** has submitted `")
-                            .append(data.getName()).append("` as their event name.\n\n");
+            List<Button> buttons = searchService.getButtons(view);
+            return searchService.formatPage(view, event.getJDA()).thenAccept(formattedPage -> {
+                WebhookMessageCreateAction<Message> reply = event.getHook().sendMessageEmbeds(EmbedUtils.createEmbed(
+                        Color.BLUE,
+                        formattedPage
+                ));
+                if (!buttons.isEmpty()) {
+                    reply.setActionRow(buttons);
                 }
-            } catch (Exception e) {
-                outputString.append("> Unknown user (ID: ").append(data.getUserId())
-                        .append(") has submitted `").append(data.getName()).append("` as their event name.\n\n");
-            }
-        }
+                reply.queue();
+            });
+        }).exceptionally(error -> {
+            replyLookupError(event, error);
+            return null;
+        });
+    }
 
-        event.getHook().sendMessageEmbeds(EmbedUtils.createEmbed(
-                Color.BLUE,
-                outputString.toString()
+    private void replyLookupError(SlashCommandInteractionEvent event, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        System.err.println("Error looking up event names: " + cause.getMessage());
+        event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
+                "An error occurred while processing your request: " + cause.getMessage()
         )).queue();
     }
 }
\ No newline at end of file
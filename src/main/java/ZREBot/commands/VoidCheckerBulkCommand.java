@@ -0,0 +1,241 @@
+package ZREBot.commands;
+
+import ZREBot.ZREBot;
+import ZREBot.services.VoidCheckerService;
+import ZREBot.utils.EmbedUtils;
+import ZREBot.utils.PermissionUtils;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+import net.dv8tion.jda.api.utils.FileUpload;
+
+import java.awt.Color;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public class VoidCheckerBulkCommand implements Command {
+    private static final int MAX_WINNERS = 200;
+    private static final int MAX_ATTACHMENT_BYTES = 64 * 1024;
+    private static final int MAX_EMBED_LENGTH = 4000;
+
+    private final ZREBot bot;
+    private final VoidCheckerService voidCheckerService;
+
+    private static final OptionData[] VOID_CHECKER_BULK_OPTIONS = {
+            new OptionData(OptionType.STRING, "reaction-message", "The ID of the message to check", true),
+            new OptionData(OptionType.STRING, "winners", "EVENTNAMES, usernames, nicknames or user IDs, separated by commas", false),
+            new OptionData(OptionType.ATTACHMENT, "winners-file", "A text file with one winner per line", false),
+            new OptionData(OptionType.BOOLEAN, "frozen", "Check against the roster saved with /void-freeze", false)
+    };
+
+    public VoidCheckerBulkCommand(ZREBot bot) {
+        this.bot = bot;
+        this.voidCheckerService = bot.getVoidCheckerService();
+    }
+
+    @Override
+    public CommandData getCommandData() {
+        return Commands.slash("void-checker-bulk", "Check a list of winners against a message's reactions")
+                .addOptions(VOID_CHECKER_BULK_OPTIONS);
+    }
+
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
+        boolean hasPermission = PermissionUtils.isModerator(event.getMember(), bot.getConfig());
+
+        if (!hasPermission) {
+            event.replyEmbeds(EmbedUtils.createErrorEmbed(
+                    "You don't have permission to use this command."
+            )).setEphemeral(true).queue();
+            return;
+        }
+
+        OptionMapping winnersOption = event.getOption("winners");
+        OptionMapping fileOption = event.getOption("winners-file");
+
+        if (winnersOption == null && fileOption == null) {
+            event.replyEmbeds(EmbedUtils.createErrorEmbed(
+                    "You must provide a winners list or a winners file"
+            )).setEphemeral(true).queue();
+            return;
+        }
+
+        Message.Attachment attachment = fileOption != null ? fileOption.getAsAttachment() : null;
+        if (attachment != null && attachment.getSize() > MAX_ATTACHMENT_BYTES) {
+            event.replyEmbeds(EmbedUtils.createErrorEmbed(
+                    "The winners file is too large (max " + (MAX_ATTACHMENT_BYTES / 1024) + " KB)"
+            )).setEphemeral(true).queue();
+            return;
+        }
+
+        event.deferReply(true).queue();
+
+        String messageId = event.getOption("reaction-message").getAsString();
+        String inlineWinners = winnersOption != null ? winnersOption.getAsString() : "";
+        OptionMapping frozenOption = event.getOption("frozen");
+        boolean frozen = frozenOption != null && frozenOption.getAsBoolean();
+
+        readAttachment(attachment).whenComplete((fileContent, error) -> {
+            if (error != null) {
+                event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
+                        "Could not read the winners file: " + error.getMessage()
+                )).queue();
+                return;
+            }
+
+            List<String> winners = parseWinners(inlineWinners + "\n" + fileContent);
+            if (winners.isEmpty()) {
+                event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
+                        "No winners found in your input"
+                )).queue();
+                return;
+            }
+            if (winners.size() > MAX_WINNERS) {
+                event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
+                        "Too many winners (" + winners.size() + "), the limit is " + MAX_WINNERS
+                )).queue();
+                return;
+            }
+
+            if (frozen) {
+                checkFrozenWinners(event, messageId, winners);
+                return;
+            }
+            checkWinners(event, messageId, winners);
+        });
+    }
+
+    private void checkFrozenWinners(SlashCommandInteractionEvent event, String messageId, List<String> winners) {
+        voidCheckerService.getSnapshot(messageId).thenCompose(snapshot -> {
+            if (snapshot == null) {
+                event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
+                        "That message has no frozen roster. Freeze it first with `/void-freeze`."
+                )).queue();
+                return CompletableFuture.completedFuture(null);
+            }
+
+            return voidCheckerService.checkSnapshotWinners(snapshot, winners).thenAccept(results ->
+                    sendResults(event, messageId, voidCheckerService.formatWinnerResults(
+                            results,
+                            voidCheckerService.formatSnapshotNote(snapshot)
+                    )));
+        }).exceptionally(error -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            System.err.println("Error checking frozen roster for message " + messageId + ": " + cause.getMessage());
+            event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
+                    "An error occurred while checking the frozen roster, no verdict was given: " + cause.getMessage()
+            )).queue();
+            return null;
+        });
+    }
+
+    private void checkWinners(SlashCommandInteractionEvent event, String messageId, List<String> winners) {
+        voidCheckerService.checkWinners(
+                event.getChannel(),
+                messageId,
+                winners,
+                event.getGuild(),
+
+                // onProgress
+                progress -> {
+                    event.getHook().editOriginalEmbeds(EmbedUtils.createEmbed(
+                            Color.GRAY,
+                            progress
+                    )).queue();
+                },
+
+                results -> sendResults(event, messageId, voidCheckerService.formatWinnerResults(results)),
+
+                // onNoReactions
+                () -> {
+                    event.getHook().editOriginalEmbeds(EmbedUtils.createEmbed(
+                            Color.YELLOW,
+                            "⚠️ No reactions found on the message"
+                    )).queue();
+                },
+
+                // onNoValidReactions
+                () -> {
+                    event.getHook().editOriginalEmbeds(EmbedUtils.createEmbed(
+                            Color.YELLOW,
+                            "⚠️ No valid user reactions found"
+                    )).queue();
+                },
+
+                // onMessageNotFound
+                onMessageNotFound -> {
+                    event.getHook().editOriginalEmbeds(EmbedUtils.createErrorEmbed(
+                            "Could not find that message (Error " + onMessageNotFound +
+                                    "). **RUN THIS COMMAND IN THE CHANNEL THE MESSAGE IS IN**"
+                    )).queue();
+                },
+
+                // onError
+                throwable -> {
+                    throwable.printStackTrace();
+                    event.getHook().editOriginalEmbeds(EmbedUtils.createErrorEmbed(
+                            "An error occurred while processing the message: " + throwable.getMessage()
+                    )).queue();
+                }
+        );
+    }
+
+    private void sendResults(SlashCommandInteractionEvent event, String messageId, String formattedMessage) {
+        if (formattedMessage.length() <= MAX_EMBED_LENGTH) {
+            event.getHook().editOriginalEmbeds(EmbedUtils.createEmbed(
+                    Color.BLUE,
+                    formattedMessage
+            )).queue();
+            return;
+        }
+
+        String summary = formattedMessage.substring(0, formattedMessage.indexOf("```"));
+        String table = formattedMessage.substring(summary.length()).replace("```", "").trim();
+        event.getHook().editOriginalEmbeds(EmbedUtils.createEmbed(
+                        Color.BLUE,
+                        summary + "The full table is attached."
+                ))
+                .setFiles(FileUpload.fromData(table.getBytes(StandardCharsets.UTF_8), "void-check-" + messageId + ".txt"))
+                .queue();
+    }
+
+    private CompletableFuture<String> readAttachment(Message.Attachment attachment) {
+        if (attachment == null) {
+            return CompletableFuture.completedFuture("");
+        }
+
+        return attachment.getProxy().download().thenApply(stream -> {
+            try (InputStream input = stream) {
+                return new String(input.readNBytes(MAX_ATTACHMENT_BYTES), StandardCharsets.UTF_8);
+            } catch (Exception e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        });
+    }
+
+    private List<String> parseWinners(String input) {
+        Set<String> winners = new LinkedHashSet<>();
+
+        for (String entry : input.split("[,;\\r\\n]+")) {
+            String winner = entry.trim().toLowerCase();
+            if (winner.matches("<@!?\\d+>")) {
+                winner = winner.replaceAll("\\D", "");
+            }
+            if (!winner.isEmpty()) {
+                winners.add(winner);
+            }
+        }
+
+        return new ArrayList<>(winners);
+    }
+}
@@ -1,15 +1,10 @@
 package ZREBot.commands;
 
 import ZREBot.ZREBot;
-import ZREBot.models.EventNameData;
-import ZREBot.models.UserData;
-import ZREBot.repositories.EventNameRepository;
-import ZREBot.repositories.PostgresEventNameRepository;
 import ZREBot.services.VoidCheckerService;
 import ZREBot.utils.EmbedUtils;
 import ZREBot.utils.PermissionUtils;
-import net.dv8tion.jda.api.entities.Member;
-import net.dv8tion.jda.api.entities.MessageReaction;
+import ZREBot.utils.TimeUtils;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
@@ -17,31 +12,27 @@ import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.interactions.commands.build.OptionData;
-import net.dv8tion.jda.api.requests.restaction.pagination.ReactionPaginationAction;
 
 import java.awt.Color;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class VoidCheckerCommand implements Command {
     private final ZREBot bot;
-    private final PostgresEventNameRepository postgresEventNameRepository;
-    private final EventNameRepository eventNameRepository;
     private final VoidCheckerService voidCheckerService;
 
     private static final OptionData[] VOID_CHECKER_OPTIONS = {
             new OptionData(OptionType.STRING, "reaction-message", "The ID of the message to check", true),
             new OptionData(OptionType.STRING, "user-name", "Check an EVENTNAME, username, nickname, or user ID", false),
-            new OptionData(OptionType.USER, "user", "Check a user", false)
+            new OptionData(OptionType.USER, "user", "Check a user", false),
+            new OptionData(OptionType.BOOLEAN, "frozen", "Check against the roster saved with /void-freeze", false),
+            new OptionData(OptionType.STRING, "as-of", "Match event names as they were at this time (date, ISO time, or Discord timestamp)", false)
     };
 
     public VoidCheckerCommand(ZREBot bot) {
         this.bot = bot;
-        this.postgresEventNameRepository = bot.getEventNameRepository();
-        this.eventNameRepository = new EventNameRepository();
-        this.voidCheckerService = new VoidCheckerService(this.eventNameRepository);
+        this.voidCheckerService = bot.getVoidCheckerService();
     }
 
     @Override
@@ -78,31 +69,73 @@ public class VoidCheckerCommand implements Command {
             return;
         }
 
+        OptionMapping frozenOption = event.getOption("frozen");
+        boolean frozen = frozenOption != null && frozenOption.getAsBoolean();
+
+        OptionMapping asOfOption = event.getOption("as-of");
+        Instant asOf = asOfOption != null ? TimeUtils.parseInstant(asOfOption.getAsString()) : null;
+        if (asOfOption != null && asOf == null) {
+            event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
+                    "Couldn't read `" + asOfOption.getAsString() + "` as a time. Use a date like `2024-05-01`, an ISO time, or a Discord timestamp"
+            )).queue();
+            return;
+        }
+        if (frozen && asOf != null) {
+            event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
+                    "A frozen roster already holds the event names from when it was frozen, so `as-of` can't be combined with `frozen`"
+            )).queue();
+            return;
+        }
+
+        if (frozen) {
+            checkFrozen(event, messageId, queryName, targetUser);
+            return;
+        }
+
+        String asOfNote = voidCheckerService.formatAsOfNote(asOf);
         voidCheckerService.checkUserReaction(
                 event.getChannel(),
                 messageId,
                 queryName,
                 targetUser,
+                asOf,
                 event.getGuild(),
+
+                // onProgress
+                progress -> {
+                    event.getHook().editOriginalEmbeds(EmbedUtils.createEmbed(
+                            Color.GRAY,
+                            progress
+                    )).queue();
+                },
+
                 userCheckResult -> {
-                    String formattedMessage = voidCheckerService.formatUserCheckResult(userCheckResult);
-                    event.getHook().sendMessageEmbeds(EmbedUtils.createEmbed(
+                    String formattedMessage = voidCheckerService.formatUserCheckResult(userCheckResult) + asOfNote;
+                    event.getHook().editOriginalEmbeds(EmbedUtils.createEmbed(
                             Color.BLUE,
                             formattedMessage
                     )).queue();
                 },
 
                 // onUserNotFound
-                () -> {
-                    event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
+                userCheckResult -> {
+                    if (userCheckResult.isPartial()) {
+                        event.getHook().editOriginalEmbeds(EmbedUtils.createEmbed(
+                                Color.YELLOW,
+                                "⚠️ That user wasn't found, but the check ran out of time before every reactor was checked." +
+                                        voidCheckerService.formatPartialNote(userCheckResult)
+                        )).queue();
+                        return;
+                    }
+                    event.getHook().editOriginalEmbeds(EmbedUtils.createErrorEmbed(
                             "That user is not reacted. **Try checking the user individually, or check the user name and not the discord name shown.** " +
-                                    "If you are checking an event name, the win should be **voided.**"
+                                    "If you are checking an event name, the win should be **voided.**" + asOfNote
                     )).queue();
                 },
 
                 //onNoReactions
                 () -> {
-                    event.getHook().sendMessageEmbeds(EmbedUtils.createEmbed(
+                    event.getHook().editOriginalEmbeds(EmbedUtils.createEmbed(
                             Color.YELLOW,
                             "⚠️ No reactions found on the message"
                     )).queue();
@@ -110,7 +143,7 @@ public class VoidCheckerCommand implements Command {
 
                 // onNoValidReactions
                 () -> {
-                    event.getHook().sendMessageEmbeds(EmbedUtils.createEmbed(
+                    event.getHook().editOriginalEmbeds(EmbedUtils.createEmbed(
                             Color.YELLOW,
                             "⚠️ No valid user reactions found"
                     )).queue();
@@ -118,7 +151,7 @@ public class VoidCheckerCommand implements Command {
 
                 // onMessageNotFound
                 onMessageNotFound -> {
-                    event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
+                    event.getHook().editOriginalEmbeds(EmbedUtils.createErrorEmbed(
                             "Could not find that message (Error " + onMessageNotFound +
                                     "). **RUN THIS COMMAND IN THE CHANNEL THE MESSAGE IS IN**"
                     )).queue();
@@ -127,105 +160,44 @@ public class VoidCheckerCommand implements Command {
                 // onError
                 throwable -> {
                     throwable.printStackTrace();
-                    event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
+                    event.getHook().editOriginalEmbeds(EmbedUtils.createErrorEmbed(
                             "An error occurred while processing the message: " + throwable.getMessage()
                     )).queue();
                 }
         );
     }
 
-    private Map<String, UserData> collectUserData(SlashCommandInteractionEvent event, List<MessageReaction> reactions) {
-        Map<String, UserData> userData = new HashMap<>();
-
-        try {
-            for (MessageReaction reaction : reactions) {
-                System.out.println("Processing reaction: " + reaction.getEmoji() + " with count: " + reaction.getCount());
-
-                ReactionPaginationAction users = reaction.retrieveUsers();
-                List<User> allUsers = new ArrayList<>();
-
-                users.forEachAsync(user -> {
-                    allUsers.add(user);
-                    return true;
-                }).get();
-
-                System.out.println("Retrieved " + allUsers.size() + " users for reaction " + reaction.getEmoji());
-
-                for (User user : allUsers) {
-                    if (user.isBot()) continue;
-
-                    System.out.println("Found user reaction: " + user.getName() + " (" + user.getId() + ")");
-
-                    if (userData.containsKey(user.getId())) continue;
-
-                    try {
-                        Member member;
-                        try {
-                            member = event.getGuild().retrieveMemberById(user.getId()).complete();
-                        } catch (Exception e) {
-                            System.err.println("Error retrieving member " + user.getId() + ": " + e.getMessage());
-                            continue;
-                        }
-
-                        if (member == null) {
-                            System.out.println("Could not retrieve member for " + user.getName() + " (" + user.getId() + ")");
-                            continue;
-                        }
-
-                        String eventName = null;
-                        EventNameData data = postgresEventNameRepository.getEventNameByUser(user.getId());
-                        if (data != null) {
-                            eventName = data.getName();
-                        }
-
-                        userData.put(user.getId(), new UserData(
-                                user.getName().toLowerCase(),
-                                member.getEffectiveName().toLowerCase(),
-                                member.getNickname() != null ? member.getNickname().toLowerCase() : null,
-                                eventName,
-                                user.getId()
-                        ));
-
-                        System.out.println("Successfully processed user: " + user.getName());
-                    } catch (Exception e) {
-                        System.err.println("Error processing user " + user.getId() + ": " + e.getMessage());
-                        e.printStackTrace();
-                    }
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error collecting user data: " + e.getMessage());
-            e.printStackTrace();
-        }
-
-        System.out.println("Total users found: " + userData.size());
-        return userData;
-    }
-
-    private UserData findUser(Map<String, UserData> userData, String queryName, User targetUser) {
-        if (queryName != null && targetUser != null) {
-            UserData data = userData.get(targetUser.getId());
-            if (data != null && data.getUserName().equals(queryName)) {
-                return data;
+    private void checkFrozen(SlashCommandInteractionEvent event, String messageId, String queryName, User targetUser) {
+        voidCheckerService.getSnapshot(messageId).thenCompose(snapshot -> {
+            if (snapshot == null) {
+                event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
+                        "That message has no frozen roster. Freeze it first with `/void-freeze`."
+                )).queue();
+                return CompletableFuture.completedFuture(null);
             }
-            return null;
-        }
-
-        if (targetUser != null) {
-            return userData.get(targetUser.getId());
-        }
 
-        if (queryName != null) {
-            for (UserData data : userData.values()) {
-                if (data.getUserName().equals(queryName) ||
-                        data.getDisplayName().equals(queryName) ||
-                        (data.getNickname() != null && data.getNickname().equals(queryName)) ||
-                        (data.getEventName() != null && data.getEventName().equals(queryName))) {
-                    return data;
+            return voidCheckerService.checkSnapshot(snapshot, queryName, targetUser).thenAccept(userCheckResult -> {
+                if (userCheckResult.getMatches().isEmpty()) {
+                    event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
+                            "That user is not in the frozen roster. **Check the user name and not the discord name shown.** " +
+                                    "If you are checking an event name, the win should be **voided.**" +
+                                    voidCheckerService.formatSnapshotNote(snapshot)
+                    )).queue();
+                    return;
                 }
-            }
-        }
 
-        return null;
+                event.getHook().sendMessageEmbeds(EmbedUtils.createEmbed(
+                        Color.BLUE,
+                        voidCheckerService.formatUserCheckResult(userCheckResult) + voidCheckerService.formatSnapshotNote(snapshot)
+                )).queue();
+            });
+        }).exceptionally(error -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            System.err.println("Error checking frozen roster for message " + messageId + ": " + cause.getMessage());
+            event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
+                    "An error occurred while checking the frozen roster, no verdict was given: " + cause.getMessage()
+            )).queue();
+            return null;
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package ZREBot.commands;
+
+import ZREBot.ZREBot;
+import ZREBot.services.VoidCheckerService;
+import ZREBot.utils.EmbedUtils;
+import ZREBot.utils.PermissionUtils;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+
+import java.awt.Color;
+
+public class VoidFreezeCommand implements Command {
+    private final ZREBot bot;
+    private final VoidCheckerService voidCheckerService;
+
+    private static final OptionData[] VOID_FREEZE_OPTIONS = {
+            new OptionData(OptionType.STRING, "reaction-message", "The ID of the message to freeze", true)
+    };
+
+    public VoidFreezeCommand(ZREBot bot) {
+        this.bot = bot;
+        this.voidCheckerService = bot.getVoidCheckerService();
+    }
+
+    @Override
+    public CommandData getCommandData() {
+        return Commands.slash("void-freeze", "Save a message's reactors so later void checks don't need Discord")
+                .addOptions(VOID_FREEZE_OPTIONS);
+    }
+
+    @Override
+    public void execute(SlashCommandInteractionEvent event) {
+        boolean hasPermission = PermissionUtils.isModerator(event.getMember(), bot.getConfig());
+
+        if (!hasPermission) {
+            event.replyEmbeds(EmbedUtils.createErrorEmbed(
+                    "You don't have permission to use this command."
+            )).setEphemeral(true).queue();
+            return;
+        }
+
+        event.deferReply(true).queue();
+
+        String messageId = event.getOption("reaction-message").getAsString();
+
+        voidCheckerService.freezeRoster(
+                event.getChannel(),
+                messageId,
+                event.getGuild(),
+
+                // onProgress
+                progress -> {
+                    event.getHook().editOriginalEmbeds(EmbedUtils.createEmbed(
+                            Color.GRAY,
+                            progress
+                    )).queue();
+                },
+
+                snapshot -> {
+                    event.getHook().editOriginalEmbeds(EmbedUtils.createEmbed(
+                            Color.BLUE,
+                            "🧊 **Froze `" + snapshot.getReactorCount() + "` reactors.** " +
+                                    "Use the `frozen` option on `/void-checker` or `/void-checker-bulk` to check against this roster."
+                    )).queue();
+                },
+
+                // onNoReactions
+                () -> {
+                    event.getHook().editOriginalEmbeds(EmbedUtils.createEmbed(
+                            Color.YELLOW,
+                            "⚠️ No reactions found on the message"
+                    )).queue();
+                },
+
+                // onNoValidReactions
+                () -> {
+                    event.getHook().editOriginalEmbeds(EmbedUtils.createEmbed(
+                            Color.YELLOW,
+                            "⚠️ No valid user reactions found"
+                    )).queue();
+                },
+
+                // onMessageNotFound
+                onMessageNotFound -> {
+                    event.getHook().editOriginalEmbeds(EmbedUtils.createErrorEmbed(
+                            "Could not find that message (Error " + onMessageNotFound +
+                                    "). **RUN THIS COMMAND IN THE CHANNEL THE MESSAGE IS IN**"
+                    )).queue();
+                },
+
+                // onError
+                throwable -> {
+                    throwable.printStackTrace();
+                    event.getHook().editOriginalEmbeds(EmbedUtils.createErrorEmbed(
+                            "Could not freeze the roster: " + throwable.getMessage()
+                    )).queue();
+                }
+        );
+    }
+}
@@ -122,6 +122,28 @@ public class BotConfig {
         return getEnvOrDefault("BOT_STATUS_URL", "https://www.twitch.tv/mrjawesomeyt");
     }
 
+    public int getIntEnvOrDefault(String key, int defaultValue) {
+        String value = getEnvOrDefault(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid number for " + key + ": " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public boolean getBooleanEnvOrDefault(String key, boolean defaultValue) {
+        String value = getEnvOrDefault(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        return value.trim().equalsIgnoreCase("true") || value.trim().equals("1");
+    }
+
     public OnlineStatus getOnlineStatus() {
         String statusTypeStr = getEnvOrDefault("BOT_ONLINE_STATUS", "ONLINE");
         return OnlineStatus.valueOf(statusTypeStr);
@@ -151,6 +173,187 @@ public class BotConfig {
         return AUTO_REACTION_CHANNELS;
     }
 
+    public List<String> getReactorIndexChannels() {
+        List<String> channels = new ArrayList<>(AUTO_REACTION_CHANNELS);
+        String extraChannels = getEnvOrDefault("VOID_CHECK_CHANNELS", "");
+        for (String channelId : extraChannels.split(",")) {
+            if (!channelId.isBlank() && !channels.contains(channelId.trim())) {
+                channels.add(channelId.trim());
+            }
+        }
+        return channels;
+    }
+
+    public int getReactorIndexMaxMessages() {
+        return getIntEnvOrDefault("REACTOR_INDEX_MAX_MESSAGES", 50);
+    }
+
+    public int getReactorIndexMaxAgeHours() {
+        return getIntEnvOrDefault("REACTOR_INDEX_MAX_AGE_HOURS", 72);
+    }
+
+    public int getMemberCacheSize() {
+        return getIntEnvOrDefault("MEMBER_CACHE_SIZE", 5000);
+    }
+
+    public int getMemberCacheTtlMinutes() {
+        return getIntEnvOrDefault("MEMBER_CACHE_TTL_MINUTES", 10);
+    }
+
+    public int getVoidCheckMaxInFlight() {
+        return getIntEnvOrDefault("VOID_CHECK_MAX_IN_FLIGHT", 4);
+    }
+
+    public int getVoidCheckDeadlineSeconds() {
+        return getIntEnvOrDefault("VOID_CHECK_DEADLINE_SECONDS", 90);
+    }
+
+    public int getRosterCacheTtlSeconds() {
+        return getIntEnvOrDefault("VOID_CHECK_ROSTER_TTL_SECONDS", 300);
+    }
+
+    public int getRosterCacheMaxUsers() {
+        return getIntEnvOrDefault("VOID_CHECK_ROSTER_CACHE_MAX_USERS", 100000);
+    }
+
+    public int getEventNameCacheSize() {
+        return getIntEnvOrDefault("EVENT_NAME_CACHE_SIZE", 20000);
+    }
+
+    public int getEventNameCacheTtlMinutes() {
+        return getIntEnvOrDefault("EVENT_NAME_CACHE_TTL_MINUTES", 60);
+    }
+
+    public int getEventNameSearchPageSize() {
+        return getIntEnvOrDefault("EVENT_NAME_SEARCH_PAGE_SIZE", 10);
+    }
+
+    public int getEventNameSearchSessionMinutes() {
+        return getIntEnvOrDefault("EVENT_NAME_SEARCH_SESSION_MINUTES", 15);
+    }
+
+    public int getUserLookupTimeoutMillis() {
+        return getIntEnvOrDefault("USER_LOOKUP_TIMEOUT_MS", 2500);
+    }
+
+    public int getDatabasePoolSize() {
+        return getIntEnvOrDefault("DATABASE_POOL_SIZE", 10);
+    }
+
+    public int getDatabasePoolMinIdle() {
+        return getIntEnvOrDefault("DATABASE_POOL_MIN_IDLE", 2);
+    }
+
+    public int getDatabaseConnectionTimeoutMillis() {
+        return getIntEnvOrDefault("DATABASE_CONNECTION_TIMEOUT_MS", 30000);
+    }
+
+    public int getDatabaseIdleTimeoutMillis() {
+        return getIntEnvOrDefault("DATABASE_IDLE_TIMEOUT_MS", 600000);
+    }
+
+    public int getDatabaseMaxLifetimeMillis() {
+        return getIntEnvOrDefault("DATABASE_MAX_LIFETIME_MS", 1800000);
+    }
+
+    public int getDatabaseLeakDetectionMillis() {
+        return getIntEnvOrDefault("DATABASE_LEAK_DETECTION_MS", 60000);
+    }
+
+    public int getDatabasePrepareThreshold() {
+        // pgjdbc switches a statement to a named server-side prepared statement after this many executions
+        return getIntEnvOrDefault("DATABASE_PREPARE_THRESHOLD", 5);
+    }
+
+    public int getDatabaseStatementCacheQueries() {
+        return getIntEnvOrDefault("DATABASE_STATEMENT_CACHE_QUERIES", 256);
+    }
+
+    public int getDatabaseDefaultFetchSize() {
+        // 0 keeps pgjdbc's default of reading whole result sets; only applies outside autocommit
+        return getIntEnvOrDefault("DATABASE_DEFAULT_FETCH_SIZE", 0);
+    }
+
+    public int getDatabaseSocketTimeoutSeconds() {
+        return getIntEnvOrDefault("DATABASE_SOCKET_TIMEOUT_SECONDS", 0);
+    }
+
+    // Diagnostics: EXPLAIN the exact name lookups at startup to confirm they can use their index
+    public boolean isDatabaseQueryPlanCheckEnabled() {
+        return getBooleanEnvOrDefault("DATABASE_CHECK_QUERY_PLANS", false);
+    }
+
+    public boolean isDatabasePoolAdaptive() {
+        return getBooleanEnvOrDefault("DATABASE_POOL_ADAPTIVE", false);
+    }
+
+    public int getDatabasePoolAdaptiveMaxSize() {
+        // Keep below the server's max_connections minus whatever else connects to it
+        return getIntEnvOrDefault("DATABASE_POOL_ADAPTIVE_MAX_SIZE", 30);
+    }
+
+    public int getDatabasePoolTargetAcquireMillis() {
+        return getIntEnvOrDefault("DATABASE_POOL_TARGET_ACQUIRE_MS", 10);
+    }
+
+    public int getDatabasePoolAdaptiveIntervalSeconds() {
+        return getIntEnvOrDefault("DATABASE_POOL_ADAPTIVE_INTERVAL_SECONDS", 15);
+    }
+
+    public int getDatabasePoolStatsIntervalMinutes() {
+        // 0 turns the periodic pool stats log off
+        return getIntEnvOrDefault("DATABASE_POOL_STATS_INTERVAL_MINUTES", 5);
+    }
+
+    public int getDatabaseExecutorThreads() {
+        // Stays below the Hikari pool size so the LISTEN connection and startup work never starve
+        // With DATABASE_POOL_ADAPTIVE the thread count follows the pool, keeping the same gap
+        return getIntEnvOrDefault("DATABASE_EXECUTOR_THREADS", 8);
+    }
+
+    public int getDatabaseExecutorQueueSize() {
+        return getIntEnvOrDefault("DATABASE_EXECUTOR_QUEUE_SIZE", 500);
+    }
+
+    public int getEventNameWriteBatchSize() {
+        // Four bind parameters per row, well under Postgres' 65535 limit
+        return getIntEnvOrDefault("EVENT_NAME_WRITE_BATCH_SIZE", 200);
+    }
+
+    public int getEventNameWriteLingerMillis() {
+        return getIntEnvOrDefault("EVENT_NAME_WRITE_LINGER_MS", 5);
+    }
+
+    public boolean isEventNameReservationEnabled() {
+        // When on, each normalized event name can only be registered by one user
+        return getBooleanEnvOrDefault("EVENT_NAME_RESERVATIONS", false);
+    }
+
+    public String getEventNameSnapshotFile() {
+        return getEnvOrDefault("EVENT_NAME_SNAPSHOT_FILE", "event_names.snapshot");
+    }
+
+    public int getEventNameSnapshotIntervalMinutes() {
+        return getIntEnvOrDefault("EVENT_NAME_SNAPSHOT_INTERVAL_MINUTES", 15);
+    }
+
+    public String getEventNameReplicaFile() {
+        return getEnvOrDefault("EVENT_NAME_REPLICA_FILE", "event_names_replica.log");
+    }
+
+    public String getEventNamePendingFile() {
+        return getEnvOrDefault("EVENT_NAME_PENDING_FILE", "event_names_pending.log");
+    }
+
+    // Queued outage writes the database refused on replay, kept for a moderator to look at
+    public String getEventNameParkedFile() {
+        return getEnvOrDefault("EVENT_NAME_PARKED_FILE", "event_names_parked.log");
+    }
+
+    public int getDatabaseRecoveryProbeSeconds() {
+        return getIntEnvOrDefault("DATABASE_RECOVERY_PROBE_SECONDS", 5);
+    }
+
     public String getZreEmojiName() {
         return ZRE_EMOJI_NAME;
     }
@@ -0,0 +1,84 @@
+package ZREBot.database;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+
+import java.util.concurrent.TimeUnit;
+
+// Grows the pool when checkouts start waiting and gives connections back once things are quiet again.
+// Each adjust() looks only at the acquires since the previous call. The pool never shrinks below its
+// configured size, so the adaptive range is [baseSize, maxSize].
+// All async JDBC goes through DatabaseExecutor, which normally has fewer threads than the pool, so Hikari
+// rarely sees a waiting thread; the backlog shows up in the executor queue instead. Both count as waiting,
+// and the executor is resized with the pool, keeping the headroom it was configured with
+public class AdaptivePoolSizer {
+    // Quiet intervals in a row before giving a connection back, so a lull between bursts doesn't shrink the pool
+    private static final int QUIET_INTERVALS_BEFORE_SHRINK = 4;
+
+    private final HikariConfigMXBean poolConfig;
+    private final PoolMetrics metrics;
+    private final DatabaseExecutor executor;
+    private final int executorHeadroom;
+    private final int baseSize;
+    private final int maxSize;
+    private final long targetAcquireMicros;
+
+    private long[] previousAcquires;
+    private long previousTimeouts;
+    private int quietIntervals;
+
+    public AdaptivePoolSizer(HikariConfigMXBean poolConfig, PoolMetrics metrics, DatabaseExecutor executor,
+                             int baseSize, int maxSize, long targetAcquireMillis) {
+        this.poolConfig = poolConfig;
+        this.metrics = metrics;
+        this.executor = executor;
+        this.executorHeadroom = Math.max(0, baseSize - executor.getThreads());
+        this.baseSize = baseSize;
+        this.maxSize = Math.max(baseSize, maxSize);
+        this.targetAcquireMicros = TimeUnit.MILLISECONDS.toMicros(Math.max(1, targetAcquireMillis));
+        this.previousAcquires = metrics.getAcquireTimes().snapshot();
+        this.previousTimeouts = metrics.getTimeouts();
+    }
+
+    public synchronized void adjust() {
+        long[] current = metrics.getAcquireTimes().snapshot();
+        long[] window = LatencyHistogram.difference(current, previousAcquires);
+        long timeouts = metrics.getTimeouts() - previousTimeouts;
+        previousAcquires = current;
+        previousTimeouts += timeouts;
+
+        long p95 = LatencyHistogram.percentileMicros(window, 0.95);
+        int pending = metrics.getPendingThreads();
+        int queued = executor.getQueueDepth();
+        int waiting = pending + queued;
+        int active = metrics.getActiveConnections();
+        int size = poolConfig.getMaximumPoolSize();
+
+        int target = size;
+        if (timeouts > 0 || waiting > 0 || p95 > targetAcquireMicros) {
+            quietIntervals = 0;
+            // Enough for everyone already waiting, and at least a quarter more, to get ahead of a rising burst
+            target = Math.min(maxSize, size + Math.max(Math.max(1, waiting), size / 4));
+        } else if (p95 <= targetAcquireMicros / 4 && active < size / 2) {
+            if (++quietIntervals >= QUIET_INTERVALS_BEFORE_SHRINK) {
+                quietIntervals = 0;
+                target = Math.max(baseSize, size - 1);
+            }
+        } else {
+            quietIntervals = 0;
+        }
+
+        if (target != size) {
+            // Grow the pool before adding executor threads, and shed threads before connections
+            if (target > size) {
+                poolConfig.setMaximumPoolSize(target);
+                executor.resize(target - executorHeadroom);
+            } else {
+                executor.resize(target - executorHeadroom);
+                poolConfig.setMaximumPoolSize(target);
+            }
+            System.out.println("Database pool resized " + size + " -> " + target + " (acquire p95 " +
+                    LatencyHistogram.formatMicros(p95) + " over " + LatencyHistogram.count(window) + " checkouts, " +
+                    pending + " waiting, " + queued + " queued, " + active + " active, " + timeouts + " timeouts)");
+        }
+    }
+}
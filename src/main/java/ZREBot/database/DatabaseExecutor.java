@@ -0,0 +1,83 @@
+package ZREBot.database;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Runs JDBC work off JDA's gateway and callback threads. The queue is bounded, so when the database
+// falls behind new work is rejected straight away instead of piling up behind the Hikari pool
+public class DatabaseExecutor {
+    private final ThreadPoolExecutor executor;
+
+    public DatabaseExecutor(int threads, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "database-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            System.err.println("Database queue is full (" + executor.getQueue().size() + " waiting), rejecting query");
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public CompletableFuture<Void> run(Runnable task) {
+        return submit(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    // Lets the adaptive pool sizer keep the number of queries in flight in step with the pool. The maximum
+    // has to stay at or above the core size, so which one moves first depends on the direction
+    public synchronized void resize(int threads) {
+        int target = Math.max(1, threads);
+        if (target > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(target);
+            executor.setCorePoolSize(target);
+        } else {
+            executor.setCorePoolSize(target);
+            executor.setMaximumPoolSize(target);
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                System.err.println("Database executor did not drain in time, " + executor.getQueue().size() + " queries dropped");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -5,19 +5,34 @@ import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
 import java.sql.Connection;
+import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class DatabaseManager {
     private static DatabaseManager instance;
     private HikariDataSource dataSource;
+    private DatabaseExecutor executor;
     private BotConfig config;
+    private String jdbcUrl;
+    private Properties connectionProperties;
+    private final PoolMetrics poolMetrics = new PoolMetrics();
+    private ScheduledExecutorService poolMonitor;
 
     private DatabaseManager() {
         this.config = new BotConfig();
         setupDataSource();
+        this.executor = new DatabaseExecutor(config.getDatabaseExecutorThreads(), config.getDatabaseExecutorQueueSize());
+        startPoolMonitor();
     }
 
-    public static DatabaseManager getInstance() {
+    // Synchronized so two threads racing through startup can't each build a pool
+    public static synchronized DatabaseManager getInstance() {
         if (instance == null) {
             instance = new DatabaseManager();
         }
@@ -70,32 +85,85 @@ public class DatabaseManager {
             throw new RuntimeException("Database configuration is missing. Please set DATABASE_URL/DATABASE_PATH or DATABASE_HOST/PORT/NAME, DATABASE_USER, and DATABASE_PASSWORD in environment variables or discloud.config file.");
         }
 
+        this.jdbcUrl = dbUrl;
+        this.connectionProperties = driverProperties();
+
         hikariConfig.setJdbcUrl(dbUrl);
         hikariConfig.setUsername(dbUser);
         hikariConfig.setPassword(dbPassword);
         hikariConfig.setDriverClassName("org.postgresql.Driver");
-
-        hikariConfig.setMaximumPoolSize(10);
-        hikariConfig.setMinimumIdle(2);
-        hikariConfig.setConnectionTimeout(30000);
-        hikariConfig.setIdleTimeout(600000);
-        hikariConfig.setMaxLifetime(1800000);
-        hikariConfig.setLeakDetectionThreshold(60000);
-
-        hikariConfig.addDataSourceProperty("cachePrepStmts", "true");
-        hikariConfig.addDataSourceProperty("prepStmtCacheSize", "250");
-        hikariConfig.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-        hikariConfig.addDataSourceProperty("useServerPrepStmts", "true");
-        hikariConfig.addDataSourceProperty("useLocalSessionState", "true");
-        hikariConfig.addDataSourceProperty("rewriteBatchedStatements", "true");
-        hikariConfig.addDataSourceProperty("cacheResultSetMetadata", "true");
-        hikariConfig.addDataSourceProperty("cacheServerConfiguration", "true");
-        hikariConfig.addDataSourceProperty("elideSetAutoCommits", "true");
-        hikariConfig.addDataSourceProperty("maintainTimeStats", "false");
+        hikariConfig.setPoolName("zrebot-db");
+
+        hikariConfig.setMaximumPoolSize(config.getDatabasePoolSize());
+        hikariConfig.setMinimumIdle(Math.min(config.getDatabasePoolMinIdle(), config.getDatabasePoolSize()));
+        hikariConfig.setConnectionTimeout(config.getDatabaseConnectionTimeoutMillis());
+        hikariConfig.setIdleTimeout(config.getDatabaseIdleTimeoutMillis());
+        hikariConfig.setMaxLifetime(config.getDatabaseMaxLifetimeMillis());
+        hikariConfig.setLeakDetectionThreshold(config.getDatabaseLeakDetectionMillis());
+        // Start even when the database is down; the event name repository runs degraded until it is back
+        hikariConfig.setInitializationFailTimeout(-1);
+        hikariConfig.setMetricsTrackerFactory(poolMetrics);
+        hikariConfig.setDataSourceProperties(connectionProperties);
+
+        // Hikari copied the driver settings above; credentials are added afterwards for dedicated connections only
+        connectionProperties.setProperty("user", dbUser);
+        connectionProperties.setProperty("password", dbPassword);
 
         this.dataSource = new HikariDataSource(hikariConfig);
+        poolMetrics.setPool(dataSource.getHikariPoolMXBean());
+
+        System.out.println("Database connection pool initialized successfully (size " + config.getDatabasePoolSize() +
+                (config.isDatabasePoolAdaptive() ? ", adaptive up to " + config.getDatabasePoolAdaptiveMaxSize() : "") + ")");
+    }
+
+    // pgjdbc's own settings. The MySQL Connector/J ones this used to set (cachePrepStmts, rewriteBatchedStatements, ...)
+    // are silently ignored by the Postgres driver
+    private Properties driverProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("ApplicationName", "ZREBot");
+        properties.setProperty("prepareThreshold", String.valueOf(config.getDatabasePrepareThreshold()));
+        properties.setProperty("preparedStatementCacheQueries", String.valueOf(config.getDatabaseStatementCacheQueries()));
+        // Turns executeBatch() inserts (such as event name history) into multi-row INSERTs
+        properties.setProperty("reWriteBatchedInserts", "true");
+        properties.setProperty("defaultRowFetchSize", String.valueOf(config.getDatabaseDefaultFetchSize()));
+        properties.setProperty("socketTimeout", String.valueOf(config.getDatabaseSocketTimeoutSeconds()));
+        properties.setProperty("tcpKeepAlive", "true");
+        return properties;
+    }
+
+    private void startPoolMonitor() {
+        int statsInterval = config.getDatabasePoolStatsIntervalMinutes();
+        boolean adaptive = config.isDatabasePoolAdaptive();
+        if (statsInterval <= 0 && !adaptive) {
+            return;
+        }
+
+        this.poolMonitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "database-pool-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (statsInterval > 0) {
+            poolMonitor.scheduleAtFixedRate(() -> System.out.println("Database pool: " + getPoolStats()),
+                    statsInterval, statsInterval, TimeUnit.MINUTES);
+        }
+        if (adaptive) {
+            AdaptivePoolSizer sizer = new AdaptivePoolSizer(dataSource.getHikariConfigMXBean(), poolMetrics, executor,
+                    config.getDatabasePoolSize(), config.getDatabasePoolAdaptiveMaxSize(), config.getDatabasePoolTargetAcquireMillis());
+            int interval = Math.max(1, config.getDatabasePoolAdaptiveIntervalSeconds());
+            poolMonitor.scheduleAtFixedRate(() -> {
+                try {
+                    sizer.adjust();
+                } catch (RuntimeException e) {
+                    System.err.println("Error resizing database pool: " + e.getMessage());
+                }
+            }, interval, interval, TimeUnit.SECONDS);
+        }
+    }
 
-        System.out.println("Database connection pool initialized successfully");
+    public String getPoolStats() {
+        return "size=" + dataSource.getHikariConfigMXBean().getMaximumPoolSize() + ", " + poolMetrics.getStats();
     }
 
     private String extractUrlParameter(String url, String paramName) {
@@ -116,12 +184,36 @@ public class DatabaseManager {
         return dataSource.getConnection();
     }
 
+    // For long-lived sessions such as LISTEN, which would otherwise pin a pool connection and trip leak detection
+    public Connection openDedicatedConnection() throws SQLException {
+        return DriverManager.getConnection(jdbcUrl, connectionProperties);
+    }
+
+    public DatabaseExecutor getExecutor() {
+        return executor;
+    }
+
     public void close() {
+        if (poolMonitor != null) {
+            poolMonitor.shutdownNow();
+        }
+        executor.shutdown();
+        System.out.println("Database pool at shutdown: " + getPoolStats());
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
         }
     }
 
+    // Failures to reach the database at all (pool timeout, refused or dropped connection), as opposed to
+    // errors in the statement itself
+    public static boolean isConnectionFailure(SQLException e) {
+        if (e instanceof SQLTransientConnectionException || e instanceof SQLNonTransientConnectionException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        return state != null && state.startsWith("08");
+    }
+
     public boolean testConnection() {
         try (Connection connection = getConnection()) {
             return connection.isValid(5);
@@ -0,0 +1,77 @@
+package ZREBot.database;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Lock-free histogram with power-of-two buckets: bucket i counts samples below 2^i microseconds.
+// Coarse, but cheap enough to record on every connection checkout
+public class LatencyHistogram {
+    private static final int BUCKETS = 40;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        counts.incrementAndGet(bucket);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public long[] snapshot() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    // Counts recorded between two snapshots, for per-interval percentiles
+    public static long[] difference(long[] current, long[] previous) {
+        long[] window = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            window[i] = current[i] - (previous != null ? previous[i] : 0);
+        }
+        return window;
+    }
+
+    public static long count(long[] snapshot) {
+        long total = 0;
+        for (long count : snapshot) {
+            total += count;
+        }
+        return total;
+    }
+
+    // Upper bound of the bucket holding the given percentile (0-1), in microseconds; 0 when empty
+    public static long percentileMicros(long[] snapshot, double percentile) {
+        long total = count(snapshot);
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return i == 0 ? 0 : 1L << i;
+            }
+        }
+        return 1L << (snapshot.length - 1);
+    }
+
+    public static String formatMicros(long micros) {
+        if (micros < 1000) {
+            return micros + "us";
+        }
+        if (micros < 10_000_000) {
+            return String.format("%.1fms", micros / 1000.0);
+        }
+        return String.format("%.1fs", micros / 1_000_000.0);
+    }
+}
@@ -0,0 +1,85 @@
+package ZREBot.database;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hikari calls this on every checkout, return and timeout. Gauges come from the pool's MXBean, which is
+// read live rather than from the once-a-second PoolStats copy
+public class PoolMetrics implements MetricsTrackerFactory, IMetricsTracker {
+    private final LatencyHistogram acquireTimes = new LatencyHistogram();
+    private final LatencyHistogram usageTimes = new LatencyHistogram();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong connectionsCreated = new AtomicLong();
+    private volatile HikariPoolMXBean pool;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return this;
+    }
+
+    void setPool(HikariPoolMXBean pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquireTimes.recordNanos(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usageTimes.recordNanos(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.incrementAndGet();
+    }
+
+    @Override
+    public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+        connectionsCreated.incrementAndGet();
+    }
+
+    public LatencyHistogram getAcquireTimes() {
+        return acquireTimes;
+    }
+
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    public int getActiveConnections() {
+        HikariPoolMXBean current = pool;
+        return current != null ? current.getActiveConnections() : 0;
+    }
+
+    public int getIdleConnections() {
+        HikariPoolMXBean current = pool;
+        return current != null ? current.getIdleConnections() : 0;
+    }
+
+    public int getPendingThreads() {
+        HikariPoolMXBean current = pool;
+        return current != null ? current.getThreadsAwaitingConnection() : 0;
+    }
+
+    public String getStats() {
+        long[] acquire = acquireTimes.snapshot();
+        long[] usage = usageTimes.snapshot();
+
+        return String.format("active=%d, idle=%d, pending=%d, acquires=%d, acquire p50=%s p95=%s p99=%s max=%s, usage p95=%s, timeouts=%d, connections opened=%d",
+                getActiveConnections(), getIdleConnections(), getPendingThreads(), LatencyHistogram.count(acquire),
+                LatencyHistogram.formatMicros(LatencyHistogram.percentileMicros(acquire, 0.50)),
+                LatencyHistogram.formatMicros(LatencyHistogram.percentileMicros(acquire, 0.95)),
+                LatencyHistogram.formatMicros(LatencyHistogram.percentileMicros(acquire, 0.99)),
+                LatencyHistogram.formatMicros(acquireTimes.getMaxMicros()),
+                LatencyHistogram.formatMicros(LatencyHistogram.percentileMicros(usage, 0.95)),
+                timeouts.get(), connectionsCreated.get());
+    }
+}
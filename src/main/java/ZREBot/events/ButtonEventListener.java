@@ -0,0 +1,52 @@
+package ZREBot.events;
+
+import ZREBot.ZREBot;
+import ZREBot.services.EventNameSearchService;
+import ZREBot.utils.EmbedUtils;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+
+import java.awt.Color;
+import java.util.concurrent.CompletableFuture;
+
+public class ButtonEventListener extends ListenerAdapter {
+    private final ZREBot bot;
+
+    public ButtonEventListener(ZREBot bot) {
+        this.bot = bot;
+    }
+
+    @Override
+    public void onButtonInteraction(ButtonInteractionEvent event) {
+        if (!event.getComponentId().startsWith(EventNameSearchService.BUTTON_PREFIX + ":")) {
+            return;
+        }
+
+        event.deferEdit().queue();
+
+        try {
+            EventNameSearchService searchService = bot.getEventNameSearchService();
+            searchService.turnPage(event.getComponentId()).thenCompose(view -> {
+                if (view == null) {
+                    event.getHook().editOriginalEmbeds(EmbedUtils.createErrorEmbed(
+                            "This search has expired. Run `/eventname check` again."
+                    )).setComponents().queue();
+                    return CompletableFuture.completedFuture(null);
+                }
+
+                return searchService.formatPage(view, event.getJDA()).thenAccept(formattedPage -> {
+                    event.getHook().editOriginalEmbeds(EmbedUtils.createEmbed(
+                            Color.BLUE,
+                            formattedPage
+                    )).setActionRow(searchService.getButtons(view)).queue();
+                });
+            }).exceptionally(error -> {
+                System.err.println("Error turning event name search page: " + error.getMessage());
+                return null;
+            });
+        } catch (Exception e) {
+            System.err.println("Error turning event name search page: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -24,7 +24,20 @@ public class CommandEventListener extends ListenerAdapter {
     private static final OptionData[] VOID_CHECKER_OPTIONS = {
             new OptionData(OptionType.STRING, "reaction-message", "The ID of the message to check", true),
             new OptionData(OptionType.STRING, "user-name", "Check an EVENTNAME, username, nickname, or user ID", false),
-            new OptionData(OptionType.USER, "user", "Check a user", false)
+            new OptionData(OptionType.USER, "user", "Check a user", false),
+            new OptionData(OptionType.BOOLEAN, "frozen", "Check against the roster saved with /void-freeze", false),
+            new OptionData(OptionType.STRING, "as-of", "Match event names as they were at this time (date, ISO time, or Discord timestamp)", false)
+    };
+
+    private static final OptionData[] VOID_CHECKER_BULK_OPTIONS = {
+            new OptionData(OptionType.STRING, "reaction-message", "The ID of the message to check", true),
+            new OptionData(OptionType.STRING, "winners", "EVENTNAMES, usernames, nicknames or user IDs, separated by commas", false),
+            new OptionData(OptionType.ATTACHMENT, "winners-file", "A text file with one winner per line", false),
+            new OptionData(OptionType.BOOLEAN, "frozen", "Check against the roster saved with /void-freeze", false)
+    };
+
+    private static final OptionData[] VOID_FREEZE_OPTIONS = {
+            new OptionData(OptionType.STRING, "reaction-message", "The ID of the message to freeze", true)
     };
 
     private static final SubcommandData EVENTNAME_SUBMIT = new SubcommandData(
@@ -35,7 +48,8 @@ public class CommandEventListener extends ListenerAdapter {
             "check", "Check a user's event name (moderator only)"
     )
             .addOption(OptionType.USER, "user", "The user to check", false)
-            .addOption(OptionType.STRING, "name", "Query an eventname", false);
+            .addOption(OptionType.STRING, "name", "Query an eventname", false)
+            .addOption(OptionType.STRING, "as-of", "Show the name the user had at this time (date, ISO time, or Discord timestamp)", false);
 
     private static final SubcommandData BAN_CREATE = new SubcommandData(
             "create", "Ban a user from the server"
@@ -70,6 +84,8 @@ public class CommandEventListener extends ListenerAdapter {
         registerCommand(new EventNameCommand(bot));
         registerCommand(new BanCommand(bot));
         registerCommand(new VoidCheckerCommand(bot));
+        registerCommand(new VoidCheckerBulkCommand(bot));
+        registerCommand(new VoidFreezeCommand(bot));
         registerCommand(new RoleCommand(bot));
     }
 
@@ -94,6 +110,12 @@ public class CommandEventListener extends ListenerAdapter {
                             Commands.slash("void-checker", "Check a message for user reactions")
                                     .addOptions(VOID_CHECKER_OPTIONS),
 
+                            Commands.slash("void-checker-bulk", "Check a list of winners against a message's reactions")
+                                    .addOptions(VOID_CHECKER_BULK_OPTIONS),
+
+                            Commands.slash("void-freeze", "Save a message's reactors so later void checks don't need Discord")
+                                    .addOptions(VOID_FREEZE_OPTIONS),
+
                             Commands.slash("role", "Role management")
                                     .addSubcommands(ROLE_ADD, ROLE_REMOVE)
                     )
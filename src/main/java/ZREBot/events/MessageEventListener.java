@@ -3,6 +3,7 @@ package ZREBot.events;
 import ZREBot.ZREBot;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.emoji.Emoji;
+import net.dv8tion.jda.api.events.message.MessageDeleteEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 
@@ -20,6 +21,8 @@ public class MessageEventListener extends ListenerAdapter {
         String channelId = event.getChannel().getId();
         List<String> autoReactionChannels = bot.getConfig().getAutoReactionChannels();
 
+        bot.getReactorIndexService().trackNewMessage(channelId, event.getMessageId());
+
         if (autoReactionChannels.contains(channelId)) {
             addReactionsToMessage(event.getMessage());
             if (event.getAuthor().isBot() && !event.isWebhookMessage()) {
@@ -42,6 +45,12 @@ public class MessageEventListener extends ListenerAdapter {
         }
     }
 
+    @Override
+    public void onMessageDelete(MessageDeleteEvent event) {
+        bot.getReactorIndexService().onMessageDelete(event.getMessageId());
+        bot.getRosterCache().invalidate(event.getMessageId());
+    }
+
     private void addReactionsToMessage(Message message) {
         try {
             String emojiName = bot.getConfig().getZreEmojiName();
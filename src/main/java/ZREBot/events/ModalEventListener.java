@@ -1,8 +1,10 @@
 package ZREBot.events;
 
 import ZREBot.ZREBot;
+import ZREBot.repositories.EventNameTakenException;
 import ZREBot.repositories.PostgresEventNameRepository;
 import ZREBot.utils.EmbedUtils;
+import ZREBot.utils.NameUtils;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 import net.dv8tion.jda.api.events.interaction.ModalInteractionEvent;
@@ -10,6 +12,7 @@ import net.dv8tion.jda.api.hooks.ListenerAdapter;
 
 import java.awt.Color;
 import java.time.Instant;
+import java.util.concurrent.CompletionException;
 
 public class ModalEventListener extends ListenerAdapter {
     private final ZREBot bot;
@@ -24,17 +27,36 @@ public class ModalEventListener extends ListenerAdapter {
             return;
         }
 
-        String eventName = event.getValue("name").getAsString();
+        // Shown exactly as it is stored, so the log channel and the confirmation match what lookups will see
+        String eventName = NameUtils.toStoredName(event.getValue("name").getAsString());
         String userId = event.getUser().getId();
         String username = event.getUser().getName();
 
         // Defer reply to handle potential database delays
         event.deferReply(true).queue();
 
-        try {
-            // Use PostgreSQL repository
-            PostgresEventNameRepository repository = bot.getEventNameRepository();
-            repository.saveEventName(userId, eventName);
+        // Use PostgreSQL repository, off the gateway thread
+        PostgresEventNameRepository repository = bot.getEventNameRepository();
+        repository.saveEventNameAsync(userId, eventName).whenComplete((saved, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof EventNameTakenException) {
+                event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
+                        "The event name \"" + eventName + "\" is already registered by another member. Please choose a different name."
+                )).queue();
+                return;
+            }
+
+            if (error != null || !saved) {
+                if (error != null) {
+                    System.err.println("Error saving event name for user " + userId + ": " + error.getMessage());
+                    error.printStackTrace();
+                }
+
+                event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
+                        "An error occurred while saving your event name. Please try again later."
+                )).queue();
+                return;
+            }
 
             // Log to channel
             String nameLogChannelId = bot.getConfig().getNameLogChannelId();
@@ -57,14 +79,6 @@ public class ModalEventListener extends ListenerAdapter {
                             "You can play under the name \"" + eventName + "\" for all future " +
                             event.getGuild().getName() + " events. To change your name, do /eventname again"
             )).queue();
-
-        } catch (Exception e) {
-            System.err.println("Error saving event name for user " + userId + ": " + e.getMessage());
-            e.printStackTrace();
-
-            event.getHook().sendMessageEmbeds(EmbedUtils.createErrorEmbed(
-                    "An error occurred while saving your event name. Please try again later."
-            )).queue();
-        }
+        });
     }
 }
\ No newline at end of file
@@ -5,7 +5,11 @@ import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Role;
 import net.dv8tion.jda.api.entities.emoji.Emoji;
 import net.dv8tion.jda.api.events.message.react.MessageReactionAddEvent;
+import net.dv8tion.jda.api.events.message.react.MessageReactionRemoveAllEvent;
+import net.dv8tion.jda.api.events.message.react.MessageReactionRemoveEmojiEvent;
 import net.dv8tion.jda.api.events.message.react.MessageReactionRemoveEvent;
+import net.dv8tion.jda.api.events.session.SessionInvalidateEvent;
+import net.dv8tion.jda.api.events.session.SessionRecreateEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 
 public class ReactionEventListener extends ListenerAdapter {
@@ -22,6 +26,10 @@ public class ReactionEventListener extends ListenerAdapter {
 
     @Override
     public void onMessageReactionAdd(MessageReactionAddEvent event) {
+        if (!isBotReaction(event.getMember(), event.getUserIdLong(), event.getJDA().getSelfUser().getIdLong())) {
+            bot.getReactorIndexService().onReactionAdd(event.getMessageId(), event.getEmoji().getFormatted(), event.getUserIdLong());
+            bot.getRosterCache().onReactionAdd(event.getMessageId(), event.getUserId());
+        }
 
         if (!event.getChannel().getId().equals(STAFF_STRIKES_CHANNEL_ID)) {
             return;
@@ -38,6 +46,8 @@ public class ReactionEventListener extends ListenerAdapter {
 
     @Override
     public void onMessageReactionRemove(MessageReactionRemoveEvent event) {
+        bot.getReactorIndexService().onReactionRemove(event.getMessageId(), event.getEmoji().getFormatted(), event.getUserIdLong());
+        bot.getRosterCache().onReactionRemove(event.getMessageId(), event.getUserId());
 
         if (!event.getChannel().getId().equals(STAFF_STRIKES_CHANNEL_ID)) {
             return;
@@ -56,6 +66,42 @@ public class ReactionEventListener extends ListenerAdapter {
         }
     }
 
+    @Override
+    public void onMessageReactionRemoveEmoji(MessageReactionRemoveEmojiEvent event) {
+        bot.getReactorIndexService().onReactionRemoveEmoji(event.getMessageId(), event.getEmoji().getFormatted());
+        bot.getRosterCache().invalidate(event.getMessageId());
+    }
+
+    @Override
+    public void onMessageReactionRemoveAll(MessageReactionRemoveAllEvent event) {
+        bot.getReactorIndexService().onReactionRemoveAll(event.getMessageId());
+        bot.getRosterCache().invalidate(event.getMessageId());
+    }
+
+    // A session that couldn't be resumed never replays the reaction events from the gap
+    @Override
+    public void onSessionInvalidate(SessionInvalidateEvent event) {
+        resetReactionState("invalidated");
+    }
+
+    @Override
+    public void onSessionRecreate(SessionRecreateEvent event) {
+        resetReactionState("recreated");
+    }
+
+    private void resetReactionState(String reason) {
+        System.out.println("Gateway session " + reason + ", dropping cached reactor data");
+        bot.getReactorIndexService().resetAll();
+        bot.getRosterCache().clear();
+    }
+
+    private boolean isBotReaction(Member member, long userId, long selfId) {
+        if (userId == selfId) {
+            return true;
+        }
+        return member != null && member.getUser().isBot();
+    }
+
     private boolean isValidReactionEmoji(Emoji emoji) {
         String emojiId = bot.getConfig().getZreEmojiId();
         String emojiName = bot.getConfig().getZreEmojiName();
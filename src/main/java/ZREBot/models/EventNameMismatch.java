@@ -0,0 +1,26 @@
+package ZREBot.models;
+
+public class EventNameMismatch {
+    private final String userId;
+    private final String legacyName;
+    // Null when the user is missing from PostgreSQL entirely
+    private final String liveName;
+
+    public EventNameMismatch(String userId, String legacyName, String liveName) {
+        this.userId = userId;
+        this.legacyName = legacyName;
+        this.liveName = liveName;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getLegacyName() {
+        return legacyName;
+    }
+
+    public String getLiveName() {
+        return liveName;
+    }
+}
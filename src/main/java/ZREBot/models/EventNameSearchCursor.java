@@ -0,0 +1,26 @@
+package ZREBot.models;
+
+// Position of the last row on a search page, in (score DESC, event_name, user_id) order
+public class EventNameSearchCursor {
+    private final float score;
+    private final String eventName;
+    private final String userId;
+
+    public EventNameSearchCursor(float score, String eventName, String userId) {
+        this.score = score;
+        this.eventName = eventName;
+        this.userId = userId;
+    }
+
+    public float getScore() {
+        return score;
+    }
+
+    public String getEventName() {
+        return eventName;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,31 @@
+package ZREBot.models;
+
+import java.util.List;
+
+public class EventNameSearchPage {
+    private final List<EventNameData> results;
+    private final EventNameSearchCursor nextCursor;
+    private final boolean hasMore;
+
+    public EventNameSearchPage(List<EventNameData> results, EventNameSearchCursor nextCursor, boolean hasMore) {
+        this.results = results;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<EventNameData> getResults() {
+        return results;
+    }
+
+    public EventNameSearchCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    public boolean isEmpty() {
+        return results.isEmpty();
+    }
+}
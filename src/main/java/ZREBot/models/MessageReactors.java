@@ -0,0 +1,117 @@
+package ZREBot.models;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class MessageReactors {
+    private final String channelId;
+    private final String messageId;
+    private final Map<String, Set<Long>> reactorsByEmoji = new HashMap<>();
+    // Reactions removed while the backfill is still paging, so a stale page can't re-add them
+    private final Set<String> removedDuringBackfill = new HashSet<>();
+    private boolean complete;
+    // Bumped on every reset, so a backfill that started before one can't mark the index complete
+    private long epoch;
+    private volatile long lastAccess;
+
+    public MessageReactors(String channelId, String messageId, boolean complete) {
+        this.channelId = channelId;
+        this.messageId = messageId;
+        this.complete = complete;
+        this.lastAccess = System.currentTimeMillis();
+    }
+
+    public String getChannelId() {
+        return channelId;
+    }
+
+    public String getMessageId() {
+        return messageId;
+    }
+
+    public synchronized boolean isComplete() {
+        return complete;
+    }
+
+    public synchronized void markComplete() {
+        this.complete = true;
+        removedDuringBackfill.clear();
+    }
+
+    public synchronized long getEpoch() {
+        return epoch;
+    }
+
+    // Forgets every reactor and waits for a fresh backfill, while still recording live events
+    public synchronized void reset() {
+        complete = false;
+        epoch++;
+        reactorsByEmoji.clear();
+        removedDuringBackfill.clear();
+    }
+
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    public void touch() {
+        this.lastAccess = System.currentTimeMillis();
+    }
+
+    public synchronized void addReaction(String emoji, long userId) {
+        reactorsByEmoji.computeIfAbsent(emoji, key -> new HashSet<>()).add(userId);
+        if (!complete) {
+            removedDuringBackfill.remove(emoji + ":" + userId);
+        }
+    }
+
+    public synchronized void addBackfilledReaction(String emoji, long userId) {
+        if (removedDuringBackfill.contains(emoji + ":" + userId)) {
+            return;
+        }
+        reactorsByEmoji.computeIfAbsent(emoji, key -> new HashSet<>()).add(userId);
+    }
+
+    public synchronized void removeReaction(String emoji, long userId) {
+        Set<Long> reactors = reactorsByEmoji.get(emoji);
+        if (reactors != null) {
+            reactors.remove(userId);
+            if (reactors.isEmpty()) {
+                reactorsByEmoji.remove(emoji);
+            }
+        }
+        if (!complete) {
+            removedDuringBackfill.add(emoji + ":" + userId);
+        }
+    }
+
+    public synchronized void removeEmoji(String emoji) {
+        reactorsByEmoji.remove(emoji);
+    }
+
+    public synchronized void clear() {
+        reactorsByEmoji.clear();
+    }
+
+    public synchronized boolean hasReacted(long userId) {
+        for (Set<Long> reactors : reactorsByEmoji.values()) {
+            if (reactors.contains(userId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized Set<String> getUserIds() {
+        Set<String> userIds = new LinkedHashSet<>();
+        for (Set<Long> reactors : reactorsByEmoji.values()) {
+            for (Long userId : reactors) {
+                userIds.add(Long.toUnsignedString(userId));
+            }
+        }
+        return userIds;
+    }
+}
@@ -0,0 +1,31 @@
+package ZREBot.models;
+
+public class ReactorSnapshot {
+    private final String messageId;
+    private final String channelId;
+    private final int reactorCount;
+    private final long frozenAt;
+
+    public ReactorSnapshot(String messageId, String channelId, int reactorCount, long frozenAt) {
+        this.messageId = messageId;
+        this.channelId = channelId;
+        this.reactorCount = reactorCount;
+        this.frozenAt = frozenAt;
+    }
+
+    public String getMessageId() {
+        return messageId;
+    }
+
+    public String getChannelId() {
+        return channelId;
+    }
+
+    public int getReactorCount() {
+        return reactorCount;
+    }
+
+    public long getFrozenAt() {
+        return frozenAt;
+    }
+}
@@ -0,0 +1,120 @@
+package ZREBot.models;
+
+import ZREBot.utils.NameUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class VoidCheckRoster {
+    private final Map<String, UserData> users;
+    // Every normalized username, display name, nickname, event name and user ID -> matching user IDs
+    private final Map<String, Set<String>> identityIndex = new HashMap<>();
+    // Reactors that couldn't be collected or resolved before the check's deadline
+    private final int unresolvedReactors;
+
+    public VoidCheckRoster(Map<String, UserData> users) {
+        this(users, 0);
+    }
+
+    public VoidCheckRoster(Map<String, UserData> users, int unresolvedReactors) {
+        this.users = new HashMap<>(users);
+        this.unresolvedReactors = unresolvedReactors;
+        for (UserData data : users.values()) {
+            index(data);
+        }
+    }
+
+    private void index(UserData data) {
+        addKey(data.getUserId(), data.getUserId());
+        addKey(data.getUserName(), data.getUserId());
+        addKey(data.getDisplayName(), data.getUserId());
+        addKey(data.getNickname(), data.getUserId());
+        addKey(data.getEventName(), data.getUserId());
+    }
+
+    private void unindex(UserData data) {
+        for (String name : new String[]{data.getUserId(), data.getUserName(), data.getDisplayName(), data.getNickname(), data.getEventName()}) {
+            String key = NameUtils.normalize(name);
+            Set<String> userIds = key != null ? identityIndex.get(key) : null;
+            if (userIds != null) {
+                userIds.remove(data.getUserId());
+                if (userIds.isEmpty()) {
+                    identityIndex.remove(key);
+                }
+            }
+        }
+    }
+
+    private void addKey(String name, String userId) {
+        String key = NameUtils.normalize(name);
+        if (key == null || key.isEmpty()) {
+            return;
+        }
+        identityIndex.computeIfAbsent(key, k -> new TreeSet<>()).add(userId);
+    }
+
+    public synchronized void put(UserData data) {
+        UserData previous = users.put(data.getUserId(), data);
+        if (previous != null) {
+            unindex(previous);
+        }
+        index(data);
+    }
+
+    public synchronized boolean remove(String userId) {
+        UserData previous = users.remove(userId);
+        if (previous == null) {
+            return false;
+        }
+        unindex(previous);
+        return true;
+    }
+
+    public synchronized boolean contains(String userId) {
+        return users.containsKey(userId);
+    }
+
+    public synchronized UserData get(String userId) {
+        return users.get(userId);
+    }
+
+    public synchronized List<UserData> findByName(String queryName) {
+        String key = NameUtils.normalize(queryName);
+        Set<String> userIds = key != null ? identityIndex.get(key) : null;
+        if (userIds == null) {
+            return Collections.emptyList();
+        }
+
+        List<UserData> matches = new ArrayList<>(userIds.size());
+        for (String userId : userIds) {
+            matches.add(users.get(userId));
+        }
+        return matches;
+    }
+
+    public synchronized Collection<UserData> getUsers() {
+        return new ArrayList<>(users.values());
+    }
+
+    public synchronized int size() {
+        return users.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return users.isEmpty();
+    }
+
+    public int getUnresolvedReactors() {
+        return unresolvedReactors;
+    }
+
+    public boolean isPartial() {
+        return unresolvedReactors > 0;
+    }
+}
@@ -0,0 +1,66 @@
+package ZREBot.repositories;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Streams CSV rows into a single COPY ... FROM STDIN (FORMAT csv). Rows are flushed every few KB,
+// so large imports never hold the whole payload in memory and still cost one round trip per buffer
+class CsvCopyWriter implements AutoCloseable {
+    private static final int FLUSH_CHARS = 64 * 1024;
+
+    private final CopyIn copyIn;
+    private final StringBuilder buffer = new StringBuilder();
+
+    CsvCopyWriter(Connection conn, String copySQL) throws SQLException {
+        this.copyIn = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(copySQL);
+    }
+
+    void writeRow(String... fields) throws SQLException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            buffer.append(csvField(fields[i]));
+        }
+        buffer.append('\n');
+
+        if (buffer.length() >= FLUSH_CHARS) {
+            flush();
+        }
+    }
+
+    // Ends the COPY and returns the number of rows the server accepted
+    long finish() throws SQLException {
+        flush();
+        return copyIn.endCopy();
+    }
+
+    private void flush() throws SQLException {
+        if (buffer.length() == 0) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        // Only still active if finish() was never reached; cancelling leaves the connection usable for the rollback
+        if (copyIn.isActive()) {
+            copyIn.cancelCopy();
+        }
+    }
+
+    private static String csvField(String value) {
+        // In CSV mode an unquoted empty field is NULL, so every real value is quoted
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
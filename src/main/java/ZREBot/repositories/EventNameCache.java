@@ -0,0 +1,194 @@
+package ZREBot.repositories;
+
+import ZREBot.models.EventNameData;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class EventNameCache {
+    // Each row of the frequency sketch counts accesses with a different hash of the user ID
+    private static final int SKETCH_DEPTH = 4;
+    private static final int[] SKETCH_SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<String, CachedEventName> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final int[][] sketch;
+    private final int sketchMask;
+    private final int sampleSize;
+    private int samples;
+    // Bumped on every invalidation, so a read that raced a NOTIFY can't re-cache a stale row
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public EventNameCache(int maxSize, long ttlMillis) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlMillis = ttlMillis;
+
+        int width = Integer.highestOneBit(Math.max(16, this.maxSize * 2) - 1) << 1;
+        this.sketch = new int[SKETCH_DEPTH][width];
+        this.sketchMask = width - 1;
+        this.sampleSize = this.maxSize * 10;
+    }
+
+    public synchronized Lookup get(String userId) {
+        recordAccess(userId);
+
+        CachedEventName cached = entries.get(userId);
+        if (cached == null || System.currentTimeMillis() - cached.cachedAt > ttlMillis) {
+            if (cached != null) {
+                entries.remove(userId);
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+
+        if (cached.data == null) {
+            negativeHits.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return new Lookup(cached.data);
+    }
+
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    public synchronized void putIfUnchanged(String userId, EventNameData data, long readGeneration) {
+        if (generation == readGeneration) {
+            put(userId, data);
+        }
+    }
+
+    public synchronized void put(String userId, EventNameData data) {
+        if (entries.containsKey(userId) || entries.size() < maxSize) {
+            entries.put(userId, new CachedEventName(data));
+            return;
+        }
+
+        // Only admit a newcomer if it has been asked for more often than the entry it would push out
+        Map.Entry<String, CachedEventName> victim = entries.entrySet().iterator().next();
+        if (frequency(userId) <= frequency(victim.getKey())) {
+            rejections.incrementAndGet();
+            return;
+        }
+
+        entries.remove(victim.getKey());
+        evictions.incrementAndGet();
+        entries.put(userId, new CachedEventName(data));
+    }
+
+    public synchronized void invalidate(String userId) {
+        generation++;
+        if (entries.remove(userId) != null) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    public synchronized void invalidateIfChanged(String userId, String eventName) {
+        CachedEventName cached = entries.get(userId);
+        if (cached == null) {
+            generation++;
+            return;
+        }
+
+        String cachedName = cached.data != null ? cached.data.getName() : null;
+        if (cachedName == null || !cachedName.equals(eventName)) {
+            generation++;
+            entries.remove(userId);
+            invalidations.incrementAndGet();
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        invalidations.addAndGet(entries.size());
+        entries.clear();
+    }
+
+    public synchronized boolean isFull() {
+        return entries.size() >= maxSize;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public String getStats() {
+        long found = hits.get();
+        long notFound = negativeHits.get();
+        long missed = misses.get();
+        long lookups = found + notFound + missed;
+        double hitRate = lookups == 0 ? 0 : (found + notFound) * 100.0 / lookups;
+
+        return String.format("size=%d/%d, hits=%d, negative hits=%d, misses=%d, hit rate=%.1f%%, evictions=%d, rejected=%d, invalidations=%d",
+                size(), maxSize, found, notFound, missed, hitRate, evictions.get(), rejections.get(), invalidations.get());
+    }
+
+    private void recordAccess(String userId) {
+        int hash = userId.hashCode();
+        for (int i = 0; i < SKETCH_DEPTH; i++) {
+            int[] row = sketch[i];
+            int index = index(hash, i);
+            if (row[index] < Integer.MAX_VALUE) {
+                row[index]++;
+            }
+        }
+
+        // Halve every counter periodically so last week's event doesn't outweigh tonight's
+        if (++samples >= sampleSize) {
+            samples = 0;
+            for (int[] row : sketch) {
+                for (int j = 0; j < row.length; j++) {
+                    row[j] >>>= 1;
+                }
+            }
+        }
+    }
+
+    private int frequency(String userId) {
+        int hash = userId.hashCode();
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < SKETCH_DEPTH; i++) {
+            frequency = Math.min(frequency, sketch[i][index(hash, i)]);
+        }
+        return frequency;
+    }
+
+    private int index(int hash, int row) {
+        int mixed = hash * SKETCH_SEEDS[row];
+        return (mixed ^ (mixed >>> 16)) & sketchMask;
+    }
+
+    public static class Lookup {
+        private final EventNameData data;
+
+        private Lookup(EventNameData data) {
+            this.data = data;
+        }
+
+        public EventNameData getData() {
+            return data;
+        }
+    }
+
+    private static class CachedEventName {
+        // Null when the user has never submitted an event name
+        private final EventNameData data;
+        private final long cachedAt;
+
+        private CachedEventName(EventNameData data) {
+            this.data = data;
+            this.cachedAt = System.currentTimeMillis();
+        }
+    }
+}
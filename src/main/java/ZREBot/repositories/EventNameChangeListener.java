@@ -0,0 +1,106 @@
+package ZREBot.repositories;
+
+import ZREBot.database.DatabaseManager;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.BiConsumer;
+
+public class EventNameChangeListener implements Runnable {
+    public static final String CHANNEL = "event_names_changed";
+
+    private static final int POLL_TIMEOUT_MS = 10000;
+    private static final long MAX_RECONNECT_DELAY_MS = 60000;
+
+    private final DatabaseManager dbManager;
+    // Called with the user ID and new event name, or a null name when the row was deleted
+    private final BiConsumer<String, String> onChange;
+    // Called whenever notifications may have been missed
+    private final Runnable onResync;
+    private volatile boolean running = true;
+    private Thread thread;
+
+    public EventNameChangeListener(DatabaseManager dbManager, BiConsumer<String, String> onChange, Runnable onResync) {
+        this.dbManager = dbManager;
+        this.onChange = onChange;
+        this.onResync = onResync;
+    }
+
+    public void start() {
+        thread = new Thread(this, "event-name-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        long reconnectDelay = 1000;
+        boolean connectedBefore = false;
+
+        while (running) {
+            try (Connection conn = dbManager.openDedicatedConnection()) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("LISTEN " + CHANNEL);
+                }
+
+                // Anything could have changed while we weren't listening. The first connect follows the
+                // repository's own startup load, so there's no gap to cover yet
+                if (connectedBefore) {
+                    onResync.run();
+                }
+                connectedBefore = true;
+                reconnectDelay = 1000;
+                System.out.println("Listening for event name changes on channel " + CHANNEL);
+
+                PGConnection pgConnection = conn.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        handle(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                System.err.println("Event name listener disconnected, retrying in " + (reconnectDelay / 1000) + "s: " + e.getMessage());
+                onResync.run();
+            }
+
+            if (!running) {
+                break;
+            }
+            try {
+                Thread.sleep(reconnectDelay);
+            } catch (InterruptedException e) {
+                break;
+            }
+            reconnectDelay = Math.min(reconnectDelay * 2, MAX_RECONNECT_DELAY_MS);
+        }
+    }
+
+    private void handle(String payload) {
+        // Payload is "<user_id>:<event_name>", with an empty name for deletes
+        int separator = payload.indexOf(':');
+        if (separator < 0) {
+            onChange.accept(payload, null);
+            return;
+        }
+
+        String eventName = payload.substring(separator + 1);
+        onChange.accept(payload.substring(0, separator), eventName.isEmpty() ? null : eventName);
+    }
+}
@@ -0,0 +1,380 @@
+package ZREBot.repositories;
+
+import ZREBot.models.EventNameData;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+// Append-only binary log behind the file-backed event name store. A save is one small appended record,
+// startup replays the log through a memory-mapped sequential scan, and a single background task
+// compacts the log into a fresh file that atomically replaces the old one once enough of it is stale.
+//
+// File layout: magic "ZREL", int version, then records of
+//   int length | byte type | long timestamp | byte idLength | id | short nameLength | name | int crc32
+// where length covers type..name and the CRC covers the same bytes. A torn or corrupt tail is truncated on open.
+public class EventNameLogStore {
+    private static final String LOG_FILE = "event_names.log";
+    private static final String LEGACY_FILE = "event_names.dat";
+
+    private static final int MAGIC = 0x5A52454C; // "ZREL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final byte TYPE_PUT = 1;
+    private static final byte TYPE_DELETE = 2;
+    private static final int MAX_RECORD_SIZE = 1 + 8 + 1 + 255 + 2 + 65535;
+
+    private static final long COMPACT_INTERVAL_MINUTES = 5;
+    // Compact once stale records outnumber live ones, but never bother for tiny logs
+    private static final int MIN_STALE_RECORDS = 1000;
+
+    private static EventNameLogStore instance;
+
+    private final Path logPath;
+    private final boolean importLegacy;
+    private final Map<String, EventNameData> eventNames = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService compactor;
+    private FileChannel channel;
+    private long recordCount;
+
+    // Also used for the Postgres repository's local replica and outage write queue, each in its own file
+    public EventNameLogStore(Path logPath) {
+        this(logPath, false);
+    }
+
+    private EventNameLogStore(Path logPath, boolean importLegacy) {
+        this.logPath = logPath;
+        this.importLegacy = importLegacy;
+
+        try {
+            open();
+        } catch (IOException e) {
+            System.err.println("Error opening event name log " + logPath + ", saves will only be kept in memory: " + e.getMessage());
+            e.printStackTrace();
+            closeQuietly();
+        }
+
+        this.compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-name-log-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compactIfNeeded, COMPACT_INTERVAL_MINUTES, COMPACT_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    // One store per process, so every repository shares the same map, file handle and compaction task
+    public static synchronized EventNameLogStore getInstance() {
+        if (instance == null) {
+            instance = new EventNameLogStore(Paths.get(LOG_FILE), true);
+        }
+        return instance;
+    }
+
+    private void open() throws IOException {
+        boolean exists = Files.exists(logPath);
+        channel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (!exists || channel.size() == 0) {
+            writeHeader(channel);
+            if (importLegacy) {
+                importLegacyFile();
+            }
+            return;
+        }
+
+        long validEnd = replay();
+        if (validEnd < channel.size()) {
+            System.err.println("Event name log has " + (channel.size() - validEnd) + " bytes of torn or corrupt data at the end, truncating");
+            channel.truncate(validEnd);
+        }
+        channel.position(channel.size());
+        System.out.println("Loaded event names for " + eventNames.size() + " users from " + recordCount + " records in " + logPath);
+    }
+
+    // Returns the offset just past the last intact record
+    private long replay() throws IOException {
+        long size = channel.size();
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+        if (size < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Not an event name log (bad header)");
+        }
+
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= 4) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            if (length <= 0 || length > MAX_RECORD_SIZE || buffer.remaining() < length + 4) {
+                return start;
+            }
+
+            ByteBuffer body = buffer.slice();
+            body.limit(length);
+            crc.reset();
+            crc.update(body.duplicate());
+            buffer.position(buffer.position() + length);
+            if ((int) crc.getValue() != buffer.getInt()) {
+                return start;
+            }
+
+            apply(body);
+            recordCount++;
+        }
+        return buffer.position();
+    }
+
+    private void apply(ByteBuffer body) {
+        byte type = body.get();
+        long timestamp = body.getLong();
+        String userId = readString(body, body.get() & 0xFF);
+
+        if (type == TYPE_DELETE) {
+            eventNames.remove(userId);
+            return;
+        }
+        String name = readString(body, body.getShort() & 0xFFFF);
+        eventNames.put(userId, new EventNameData(userId, name, timestamp));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void importLegacyFile() {
+        // One-time conversion of the old Java-serialized map; the .dat file is left in place as a backup
+        File legacy = new File(LEGACY_FILE);
+        if (!legacy.exists()) {
+            System.out.println("No saved event names file found, starting fresh");
+            return;
+        }
+
+        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(legacy))) {
+            Map<String, EventNameData> loaded = (Map<String, EventNameData>) ois.readObject();
+            for (EventNameData data : loaded.values()) {
+                append(channel, encode(TYPE_PUT, data.getUserId(), data.getName(), data.getTimestamp()));
+                eventNames.put(data.getUserId(), data);
+                recordCount++;
+            }
+            channel.force(false);
+            System.out.println("Converted " + loaded.size() + " event names from " + LEGACY_FILE + " into " + logPath);
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Error converting " + LEGACY_FILE + ": " + e.getMessage());
+        }
+    }
+
+    // Writes return true only once the change is on disk. A change whose write failed is not applied at all,
+    // so nothing is ever reported as saved that a restart would lose
+
+    public synchronized boolean put(EventNameData data) {
+        return persist(() -> eventNames.put(data.getUserId(), data), encode(TYPE_PUT, data.getUserId(), data.getName(), data.getTimestamp()));
+    }
+
+    public synchronized boolean remove(String userId) {
+        if (!eventNames.containsKey(userId)) {
+            return true;
+        }
+        return persist(() -> eventNames.remove(userId), encode(TYPE_DELETE, userId, null, System.currentTimeMillis()));
+    }
+
+    // Appends every entry and syncs once, so a batch costs one fsync rather than one per user
+    public synchronized boolean putAll(Collection<EventNameData> batch) {
+        if (batch.isEmpty()) {
+            return true;
+        }
+
+        List<ByteBuffer> records = new ArrayList<>(batch.size());
+        for (EventNameData data : batch) {
+            records.add(encode(TYPE_PUT, data.getUserId(), data.getName(), data.getTimestamp()));
+        }
+        return persist(() -> {
+            for (EventNameData data : batch) {
+                eventNames.put(data.getUserId(), data);
+            }
+        }, records.toArray(new ByteBuffer[0]));
+    }
+
+    // Removes the entry only if it is still the given one, so a newer write for the same user survives
+    public synchronized boolean removeIfUnchanged(EventNameData expected) {
+        EventNameData current = eventNames.get(expected.getUserId());
+        if (current == null || !current.getName().equals(expected.getName()) || current.getTimestamp() != expected.getTimestamp()) {
+            return false;
+        }
+        return remove(expected.getUserId());
+    }
+
+    // Makes the store hold exactly the given entries and rewrites the file to match
+    public synchronized void replaceAll(Map<String, EventNameData> entries) {
+        eventNames.keySet().retainAll(entries.keySet());
+        eventNames.putAll(entries);
+        compact();
+    }
+
+    public int size() {
+        return eventNames.size();
+    }
+
+    private boolean persist(Runnable change, ByteBuffer... records) {
+        if (channel == null) {
+            // The log couldn't be opened; keep the change in memory as promised at startup, but don't call it saved
+            change.run();
+            return false;
+        }
+        if (!write(records)) {
+            return false;
+        }
+        change.run();
+        return true;
+    }
+
+    private boolean write(ByteBuffer... records) {
+        long start;
+        try {
+            start = channel.position();
+        } catch (IOException e) {
+            System.err.println("Error appending to event name log " + logPath + ": " + e.getMessage());
+            return false;
+        }
+
+        try {
+            for (ByteBuffer record : records) {
+                append(channel, record);
+            }
+            channel.force(false);
+            recordCount += records.length;
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error appending to event name log " + logPath + ": " + e.getMessage());
+            // A partial record would end replay on the next start and take every later record with it
+            try {
+                channel.truncate(start);
+                channel.position(start);
+            } catch (IOException truncateError) {
+                System.err.println("Could not remove the partial record from " + logPath + ", saves will only be kept in memory: " + truncateError.getMessage());
+                closeQuietly();
+            }
+            return false;
+        }
+    }
+
+    public EventNameData get(String userId) {
+        return eventNames.get(userId);
+    }
+
+    public Map<String, EventNameData> getAll() {
+        return eventNames;
+    }
+
+    private void compactIfNeeded() {
+        long stale;
+        synchronized (this) {
+            stale = recordCount - eventNames.size();
+        }
+        if (stale >= MIN_STALE_RECORDS && stale > eventNames.size()) {
+            compact();
+        }
+    }
+
+    // Writes only the live entries to a side file, then renames it over the log. Appends wait on the lock
+    // meanwhile, so no write can land in the old file after its snapshot was taken
+    public synchronized void compact() {
+        if (channel == null) {
+            return;
+        }
+
+        Path compactPath = logPath.resolveSibling(logPath.getFileName() + ".compact");
+        long before = recordCount;
+
+        try (FileChannel compacted = FileChannel.open(compactPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeHeader(compacted);
+            for (EventNameData data : eventNames.values()) {
+                append(compacted, encode(TYPE_PUT, data.getUserId(), data.getName(), data.getTimestamp()));
+            }
+            compacted.force(true);
+        } catch (IOException e) {
+            System.err.println("Error compacting event name log, keeping the current file: " + e.getMessage());
+            return;
+        }
+
+        try {
+            channel.close();
+            Files.move(compactPath, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(logPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+            recordCount = eventNames.size();
+            System.out.println("Compacted event name log from " + before + " to " + recordCount + " records");
+        } catch (IOException e) {
+            System.err.println("Error swapping in the compacted event name log: " + e.getMessage());
+            try {
+                channel = FileChannel.open(logPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                channel.position(channel.size());
+            } catch (IOException reopenError) {
+                System.err.println("Event name log is unavailable, saves will only be kept in memory: " + reopenError.getMessage());
+                channel = null;
+            }
+        }
+    }
+
+    private void closeQuietly() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            channel = null;
+        }
+    }
+
+    private static void writeHeader(FileChannel target) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        append(target, header);
+    }
+
+    private static ByteBuffer encode(byte type, String userId, String name, long timestamp) {
+        byte[] id = userId.getBytes(StandardCharsets.UTF_8);
+        byte[] nameBytes = name != null ? name.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (id.length > 255 || nameBytes.length > 65535) {
+            throw new IllegalArgumentException("Event name record too large for user " + userId);
+        }
+
+        int length = 1 + 8 + 1 + id.length + (type == TYPE_PUT ? 2 + nameBytes.length : 0);
+        ByteBuffer record = ByteBuffer.allocate(4 + length + 4);
+        record.putInt(length).put(type).putLong(timestamp).put((byte) id.length).put(id);
+        if (type == TYPE_PUT) {
+            record.putShort((short) nameBytes.length).put(nameBytes);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 4, length);
+        record.putInt((int) crc.getValue()).flip();
+        return record;
+    }
+
+    private static void append(FileChannel target, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,352 @@
+package ZREBot.repositories;
+
+import ZREBot.models.EventNameData;
+import ZREBot.models.EventNameSearchCursor;
+import ZREBot.models.EventNameSearchPage;
+import ZREBot.utils.NameUtils;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+// Local copy of event_names that answers reads while Postgres is unreachable, plus a durable queue of the
+// writes made during the outage. A probe watches for the database to come back, replays the queue in
+// batches, and only then hands reads and writes back to Postgres, so a queued write can never land after
+// a newer one
+public class EventNameReplica {
+    private final EventNameLogStore replica;
+    private final EventNameLogStore pendingWrites;
+    // Queued writes the database refused, kept for a moderator instead of blocking the rest of the queue
+    private final EventNameLogStore parkedWrites;
+    private final Path parkedPath;
+    private final long probeIntervalSeconds;
+    private final int replayBatchSize;
+    private final ScheduledExecutorService prober;
+    // Guards the switch between degraded and normal mode against writes deciding where to go
+    private final Object outageLock = new Object();
+
+    private BooleanSupplier connectionCheck;
+    private Runnable beforeReplay;
+    private Function<List<EventNameData>, ReplayResult> replayBatch;
+    private Runnable afterRecovery;
+
+    private volatile boolean degraded;
+    private volatile EventNameSearchIndex outageIndex;
+    private ScheduledFuture<?> probe;
+
+    public EventNameReplica(Path replicaPath, Path pendingPath, Path parkedPath, long probeIntervalSeconds, int replayBatchSize) {
+        this.replica = new EventNameLogStore(replicaPath);
+        this.pendingWrites = new EventNameLogStore(pendingPath);
+        this.parkedWrites = new EventNameLogStore(parkedPath);
+        this.parkedPath = parkedPath;
+        this.probeIntervalSeconds = probeIntervalSeconds;
+        this.replayBatchSize = Math.max(1, replayBatchSize);
+        this.prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-name-recovery");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // connectionCheck: is Postgres reachable. beforeReplay: runs once it is, before anything is replayed.
+    // replayBatch: writes queued entries to Postgres. afterRecovery: runs after normal mode resumes
+    public void setRecoveryHooks(BooleanSupplier connectionCheck, Runnable beforeReplay, Function<List<EventNameData>, ReplayResult> replayBatch, Runnable afterRecovery) {
+        this.connectionCheck = connectionCheck;
+        this.beforeReplay = beforeReplay;
+        this.replayBatch = replayBatch;
+        this.afterRecovery = afterRecovery;
+
+        // Writes queued by a previous run that exited before the database came back
+        if (parkedWrites.size() > 0) {
+            System.err.println(parkedWrites.size() + " queued event name writes were refused by the database and are parked in " + parkedPath);
+        }
+        if (pendingWrites.size() > 0) {
+            System.out.println(pendingWrites.size() + " event name writes are still queued from an earlier outage");
+            synchronized (outageLock) {
+                startProbe();
+            }
+        }
+    }
+
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    public void enterDegradedMode(SQLException cause) {
+        synchronized (outageLock) {
+            if (degraded) {
+                return;
+            }
+            degraded = true;
+            System.err.println("PostgreSQL is unreachable" + (cause != null ? " (" + cause.getMessage() + ")" : "") +
+                    ", serving " + replica.size() + " event names from the local replica and queueing writes");
+            startProbe();
+        }
+    }
+
+    private void startProbe() {
+        degraded = true;
+        if (probe == null || probe.isDone()) {
+            probe = prober.scheduleWithFixedDelay(this::tryRecover, probeIntervalSeconds, probeIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private void tryRecover() {
+        try {
+            if (!connectionCheck.getAsBoolean()) {
+                return;
+            }
+            beforeReplay.run();
+
+            int replayed = 0;
+            while (true) {
+                List<EventNameData> batch = new ArrayList<>(replayBatchSize);
+                synchronized (outageLock) {
+                    if (pendingWrites.size() == 0) {
+                        degraded = false;
+                        outageIndex = null;
+                        probe.cancel(false);
+                        break;
+                    }
+                    Iterator<EventNameData> iterator = pendingWrites.getAll().values().iterator();
+                    while (iterator.hasNext() && batch.size() < replayBatchSize) {
+                        batch.add(iterator.next());
+                    }
+                }
+
+                ReplayResult result = replayBatch.apply(batch);
+                if (result.status == ReplayStatus.FAILED) {
+                    // One bad row fails the whole statement, so find it by replaying the batch a row at a time
+                    System.err.println("Replaying " + batch.size() + " queued event names failed, retrying them one by one");
+                    for (EventNameData data : batch) {
+                        ReplayResult single = replayBatch.apply(List.of(data));
+                        if (single.status == ReplayStatus.UNREACHABLE) {
+                            System.err.println("PostgreSQL became unreachable while replaying queued event names, retrying in " + probeIntervalSeconds + "s");
+                            return;
+                        }
+                        if (single.status == ReplayStatus.FAILED) {
+                            park(data, "the database rejected it");
+                        } else {
+                            parkRefused(single);
+                            replayed++;
+                        }
+                        pendingWrites.removeIfUnchanged(data);
+                    }
+                    continue;
+                }
+                if (result.status == ReplayStatus.UNREACHABLE) {
+                    System.err.println("Replaying queued event names failed, retrying in " + probeIntervalSeconds + "s");
+                    return;
+                }
+
+                parkRefused(result);
+                for (EventNameData data : batch) {
+                    pendingWrites.removeIfUnchanged(data);
+                }
+                replayed += batch.size();
+            }
+
+            pendingWrites.compact();
+            System.out.println("PostgreSQL is reachable again, replayed " + replayed + " queued event names");
+            afterRecovery.run();
+        } catch (RuntimeException e) {
+            System.err.println("Error recovering from database outage: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private void parkRefused(ReplayResult result) {
+        for (Map.Entry<EventNameData, String> refused : result.refused.entrySet()) {
+            park(refused.getKey(), refused.getValue());
+        }
+    }
+
+    private void park(EventNameData data, String reason) {
+        boolean kept = parkedWrites.put(data);
+        System.err.println("Could not replay event name '" + data.getName() + "' queued for user " + data.getUserId() + " (" + reason + "), " +
+                (kept ? "parked in " + parkedPath : "and it could not be parked either"));
+    }
+
+    public int getParkedCount() {
+        return parkedWrites.size();
+    }
+
+    public Map<String, EventNameData> getParkedWrites() {
+        return parkedWrites.getAll();
+    }
+
+    public enum ReplayStatus {
+        APPLIED,
+        // Postgres went away again; the batch stays at the head of the queue for the next probe
+        UNREACHABLE,
+        // The statement itself failed, so some row in the batch can never be written as is
+        FAILED
+    }
+
+    public static class ReplayResult {
+        private final ReplayStatus status;
+        // Rows the batch committed without, each with the reason, e.g. a name reserved by someone else
+        private final Map<EventNameData, String> refused;
+
+        private ReplayResult(ReplayStatus status, Map<EventNameData, String> refused) {
+            this.status = status;
+            this.refused = refused;
+        }
+
+        public static ReplayResult applied(Map<EventNameData, String> refused) {
+            return new ReplayResult(ReplayStatus.APPLIED, refused);
+        }
+
+        public static ReplayResult unreachable() {
+            return new ReplayResult(ReplayStatus.UNREACHABLE, Map.of());
+        }
+
+        public static ReplayResult failed() {
+            return new ReplayResult(ReplayStatus.FAILED, Map.of());
+        }
+    }
+
+    // Queues the writes durably and applies them locally. Returns null when the database is up and the caller
+    // should write to it instead. Names another user already holds in the replica, or that an earlier user in
+    // the same batch claims, are left out and added to taken
+    public Map<String, EventNameData> queueWrites(Map<String, String> eventNames, Map<String, String> taken) {
+        synchronized (outageLock) {
+            if (!degraded) {
+                return null;
+            }
+
+            long now = System.currentTimeMillis();
+            Map<String, String> claimed = new HashMap<>();
+            Map<String, EventNameData> queued = new LinkedHashMap<>();
+            for (Map.Entry<String, String> entry : eventNames.entrySet()) {
+                String userId = entry.getKey();
+                String key = NameUtils.normalize(entry.getValue());
+                String claimant = claimed.putIfAbsent(key, userId);
+                if ((claimant != null && !claimant.equals(userId)) || isHeldByOther(entry.getValue(), userId)) {
+                    taken.put(userId, entry.getValue());
+                    continue;
+                }
+                queued.put(userId, new EventNameData(userId, NameUtils.toStoredName(entry.getValue()), now));
+            }
+            if (queued.isEmpty()) {
+                return queued;
+            }
+
+            if (!pendingWrites.putAll(queued.values())) {
+                // Not durable, so don't tell anyone it was saved. A store without a log file still applies
+                // writes in memory; take them back out so they aren't replayed
+                for (EventNameData data : queued.values()) {
+                    pendingWrites.removeIfUnchanged(data);
+                }
+                return Map.of();
+            }
+            replica.putAll(queued.values());
+
+            EventNameSearchIndex index = outageIndex;
+            if (index != null) {
+                for (EventNameData data : queued.values()) {
+                    index.put(data);
+                }
+            }
+            return queued;
+        }
+    }
+
+    private boolean isHeldByOther(String name, String userId) {
+        for (EventNameData holder : findByName(name)) {
+            if (!holder.getUserId().equals(userId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getPendingCount() {
+        return pendingWrites.size();
+    }
+
+    // Keeps the replica in step with Postgres while it is up
+
+    public void applySaved(Collection<EventNameData> saved) {
+        replica.putAll(saved);
+    }
+
+    public void applyRemoteChange(String userId, String eventName) {
+        if (eventName == null) {
+            replica.remove(userId);
+            return;
+        }
+        EventNameData current = replica.get(userId);
+        if (current == null || !current.getName().equals(eventName)) {
+            replica.put(new EventNameData(userId, eventName, System.currentTimeMillis()));
+        }
+    }
+
+    public void replaceAll(Map<String, EventNameData> entries) {
+        replica.replaceAll(entries);
+        System.out.println("Local event name replica refreshed with " + entries.size() + " names");
+    }
+
+    // Reads served while degraded
+
+    public EventNameData get(String userId) {
+        return replica.get(userId);
+    }
+
+    public Map<String, EventNameData> getAll(Collection<String> userIds) {
+        Map<String, EventNameData> results = new HashMap<>();
+        for (String userId : userIds) {
+            EventNameData data = replica.get(userId);
+            if (data != null) {
+                results.put(userId, data);
+            }
+        }
+        return results;
+    }
+
+    // Full scan, but only ever used during an outage
+    public List<EventNameData> findByName(String name) {
+        String key = NameUtils.normalize(name);
+        List<EventNameData> matches = new ArrayList<>();
+        for (EventNameData data : replica.getAll().values()) {
+            if (NameUtils.normalize(data.getName()).equals(key)) {
+                matches.add(data);
+            }
+        }
+        return matches;
+    }
+
+    public EventNameSearchPage searchPage(String query, double threshold, EventNameSearchCursor after, int pageSize) {
+        EventNameSearchIndex index = outageIndex;
+        if (index == null) {
+            // Built on the first search of an outage and dropped once it ends
+            synchronized (outageLock) {
+                if (outageIndex == null) {
+                    EventNameSearchIndex built = new EventNameSearchIndex();
+                    for (EventNameData data : replica.getAll().values()) {
+                        built.put(data);
+                    }
+                    outageIndex = built;
+                }
+                index = outageIndex;
+            }
+        }
+        return index.searchPage(query, threshold, after, pageSize);
+    }
+
+    public void stop() {
+        prober.shutdownNow();
+    }
+}
@@ -0,0 +1,173 @@
+package ZREBot.repositories;
+
+import ZREBot.models.EventNameData;
+import ZREBot.models.EventNameSearchCursor;
+import ZREBot.models.EventNameSearchPage;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// In-memory stand-in for the pg_trgm GIN index, for databases where the extension can't be installed.
+// Trigrams and similarity follow pg_trgm so both paths return the same ranked results.
+public class EventNameSearchIndex {
+    // score DESC, event_name, user_id - the same order the SQL search pages through
+    private static final Comparator<Object> RANK_ORDER = Comparator
+            .comparingDouble(EventNameSearchIndex::rankScore).reversed()
+            .thenComparing(EventNameSearchIndex::rankName)
+            .thenComparing(EventNameSearchIndex::rankUserId);
+
+    private final Map<String, EventNameData> names = new HashMap<>();
+    private final Map<String, Set<String>> postings = new HashMap<>();
+
+    public synchronized void put(EventNameData data) {
+        remove(data.getUserId());
+        names.put(data.getUserId(), data);
+        for (String trigram : trigrams(data.getName())) {
+            postings.computeIfAbsent(trigram, key -> new HashSet<>()).add(data.getUserId());
+        }
+    }
+
+    public synchronized void remove(String userId) {
+        EventNameData previous = names.remove(userId);
+        if (previous == null) {
+            return;
+        }
+        for (String trigram : trigrams(previous.getName())) {
+            Set<String> userIds = postings.get(trigram);
+            if (userIds != null) {
+                userIds.remove(userId);
+                if (userIds.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return names.size();
+    }
+
+    public synchronized EventNameSearchPage searchPage(String query, double threshold, EventNameSearchCursor after, int pageSize) {
+        String name = query.toLowerCase();
+        Set<String> queryTrigrams = trigrams(name);
+
+        // Anything similar enough shares at least one trigram with the query
+        Set<String> candidates = new HashSet<>();
+        for (String trigram : queryTrigrams) {
+            Set<String> userIds = postings.get(trigram);
+            if (userIds != null) {
+                candidates.addAll(userIds);
+            }
+        }
+        candidates.addAll(substringCandidates(name));
+
+        List<ScoredName> matches = new ArrayList<>();
+        for (String userId : candidates) {
+            EventNameData data = names.get(userId);
+            // Postgres reports similarity as a real, so round the same way to rank and page identically
+            float score = (float) similarity(queryTrigrams, trigrams(data.getName()));
+            ScoredName match = new ScoredName(data, score);
+            if ((score >= threshold || data.getName().toLowerCase().contains(name)) && (after == null || RANK_ORDER.compare(match, after) > 0)) {
+                matches.add(match);
+            }
+        }
+        matches.sort(RANK_ORDER);
+
+        List<EventNameData> results = new ArrayList<>(Math.min(pageSize, matches.size()));
+        EventNameSearchCursor lastCursor = null;
+        for (ScoredName match : matches.subList(0, Math.min(pageSize, matches.size()))) {
+            results.add(match.data);
+            lastCursor = new EventNameSearchCursor(match.score, match.data.getName(), match.data.getUserId());
+        }
+        return new EventNameSearchPage(results, lastCursor, matches.size() > pageSize);
+    }
+
+    private Set<String> substringCandidates(String query) {
+        // Every name containing the query contains each run of 3+ word characters in it, and so that run's inner trigrams
+        Set<String> candidates = null;
+        for (String word : words(query)) {
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                Set<String> userIds = postings.getOrDefault(word.substring(i, i + 3), Set.of());
+                if (candidates == null) {
+                    candidates = new HashSet<>(userIds);
+                } else {
+                    candidates.retainAll(userIds);
+                }
+            }
+        }
+
+        // Like Postgres, a query without a full trigram has nothing to narrow by and has to check every name
+        return candidates != null ? candidates : names.keySet();
+    }
+
+    private static double rankScore(Object row) {
+        return row instanceof ScoredName ? ((ScoredName) row).score : ((EventNameSearchCursor) row).getScore();
+    }
+
+    private static String rankName(Object row) {
+        return row instanceof ScoredName ? ((ScoredName) row).data.getName() : ((EventNameSearchCursor) row).getEventName();
+    }
+
+    private static String rankUserId(Object row) {
+        return row instanceof ScoredName ? ((ScoredName) row).data.getUserId() : ((EventNameSearchCursor) row).getUserId();
+    }
+
+    static double similarity(Set<String> first, Set<String> second) {
+        if (first.isEmpty() || second.isEmpty()) {
+            return 0;
+        }
+
+        int common = 0;
+        for (String trigram : first) {
+            if (second.contains(trigram)) {
+                common++;
+            }
+        }
+        return (double) common / (first.size() + second.size() - common);
+    }
+
+    static Set<String> trigrams(String value) {
+        // pg_trgm pads each word with two spaces in front and one behind
+        Set<String> trigrams = new HashSet<>();
+        for (String word : words(value.toLowerCase())) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    private static List<String> words(String value) {
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (word.length() > 0) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    private static class ScoredName {
+        private final EventNameData data;
+        private final float score;
+
+        private ScoredName(EventNameData data, float score) {
+            this.data = data;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package ZREBot.repositories;
+
+import ZREBot.models.EventNameData;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Compact gzip snapshot of the event name read model, used to warm the cache before the gateway connects.
+//
+// File layout (inside gzip): magic "ZRES", int version, long takenAt (database clock, epoch millis), then entries of
+//   varint userId | varint createdAt | varint nameLength | name
+// ended by a varint 0 and a varint entry count. Discord IDs are snowflakes, so a user ID of 0 never occurs.
+// Written to a side file and renamed into place, so a crash mid-write leaves the previous snapshot intact
+class EventNameSnapshot {
+    private static final int MAGIC = 0x5A524553; // "ZRES"
+    private static final int VERSION = 1;
+    private static final int MAX_NAME_BYTES = 4096;
+
+    private final Path path;
+    private final ScheduledExecutorService scheduler;
+
+    EventNameSnapshot(Path path) {
+        this.path = path;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-name-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void schedule(Runnable task, long initialDelayMinutes, long intervalMinutes) {
+        scheduler.scheduleWithFixedDelay(task, initialDelayMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    // Hands entries to the consumer until it returns false, and returns when the snapshot was taken, or -1 if
+    // there is no usable snapshot. Entries read before a corrupt or truncated section are still delivered
+    long load(Predicate<EventNameData> consumer) {
+        if (!Files.exists(path)) {
+            return -1;
+        }
+
+        long takenAt = -1;
+        long loaded = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path), 64 * 1024)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                System.err.println("Ignoring event name snapshot " + path + " (bad header)");
+                return -1;
+            }
+            takenAt = in.readLong();
+
+            long userId;
+            while ((userId = readVarLong(in)) != 0) {
+                long createdAt = readVarLong(in);
+                int nameLength = (int) readVarLong(in);
+                if (nameLength < 0 || nameLength > MAX_NAME_BYTES) {
+                    throw new IOException("Bad name length " + nameLength);
+                }
+                byte[] name = new byte[nameLength];
+                in.readFully(name);
+
+                loaded++;
+                if (!consumer.test(new EventNameData(Long.toUnsignedString(userId), new String(name, StandardCharsets.UTF_8), createdAt))) {
+                    return takenAt;
+                }
+            }
+
+            long expected = readVarLong(in);
+            if (expected != loaded) {
+                System.err.println("Event name snapshot " + path + " lists " + expected + " entries but holds " + loaded);
+            }
+        } catch (IOException e) {
+            System.err.println("Event name snapshot " + path + " is damaged after " + loaded + " entries: " + e.getMessage());
+        }
+        return takenAt;
+    }
+
+    Writer beginWrite(long takenAt) throws IOException {
+        return new Writer(takenAt);
+    }
+
+    class Writer implements AutoCloseable {
+        private final Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        private final FileOutputStream file;
+        private final GZIPOutputStream gzip;
+        private final DataOutputStream out;
+        private long written;
+        private boolean committed;
+
+        private Writer(long takenAt) throws IOException {
+            this.file = new FileOutputStream(tempPath.toFile());
+            this.gzip = new GZIPOutputStream(file, 64 * 1024);
+            this.out = new DataOutputStream(new BufferedOutputStream(gzip));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(takenAt);
+        }
+
+        // Returns false for entries that can't be encoded (non-numeric user IDs), which are left out
+        boolean add(EventNameData data) throws IOException {
+            long userId;
+            try {
+                userId = Long.parseUnsignedLong(data.getUserId());
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            byte[] name = data.getName().getBytes(StandardCharsets.UTF_8);
+            if (userId == 0 || name.length > MAX_NAME_BYTES) {
+                return false;
+            }
+
+            writeVarLong(out, userId);
+            writeVarLong(out, Math.max(0, data.getTimestamp()));
+            writeVarLong(out, name.length);
+            out.write(name);
+            written++;
+            return true;
+        }
+
+        // Finishes the file, syncs it and renames it over the previous snapshot
+        long commit() throws IOException {
+            writeVarLong(out, 0);
+            writeVarLong(out, written);
+            out.flush();
+            gzip.finish();
+            file.getChannel().force(true);
+            out.close();
+            committed = true;
+
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return written;
+        }
+
+        @Override
+        public void close() {
+            if (committed) {
+                return;
+            }
+            try {
+                out.close();
+            } catch (IOException ignored) {
+            }
+            try {
+                Files.deleteIfExists(tempPath);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated varint");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint too long");
+    }
+}
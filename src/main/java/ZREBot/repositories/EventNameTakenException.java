@@ -0,0 +1,18 @@
+package ZREBot.repositories;
+
+// Completes a submission's future when someone else already holds the name: in the reservations table, or in
+// the local replica when the write is queued during an outage
+public class EventNameTakenException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String eventName;
+
+    public EventNameTakenException(String eventName) {
+        super("Event name '" + eventName + "' is already reserved by another user");
+        this.eventName = eventName;
+    }
+
+    public String getEventName() {
+        return eventName;
+    }
+}
@@ -0,0 +1,171 @@
+package ZREBot.repositories;
+
+import ZREBot.models.EventNameData;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+
+// Group-commits event name submissions. Writes that arrive within the linger window are flushed together
+// as one statement in one transaction, so a signup rush costs one round trip per batch instead of per user
+public class EventNameWriteCoalescer implements Runnable {
+    private final int maxBatchSize;
+    private final long lingerMillis;
+    // Saves a batch of user ID -> event name and returns what was stored, or null if the transaction failed.
+    // Users whose name is reserved by someone else go into the second map, user ID -> name
+    private final BiFunction<Map<String, String>, Map<String, String>, Map<String, EventNameData>> flusher;
+
+    private final Object lock = new Object();
+    // Keyed by user so only the latest name per user is written; earlier submitters share its outcome
+    private LinkedHashMap<String, PendingWrite> pending = new LinkedHashMap<>();
+    private long firstQueuedAt;
+    private boolean running = true;
+    private Thread thread;
+
+    public EventNameWriteCoalescer(int maxBatchSize, long lingerMillis, BiFunction<Map<String, String>, Map<String, String>, Map<String, EventNameData>> flusher) {
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.lingerMillis = Math.max(0, lingerMillis);
+        this.flusher = flusher;
+    }
+
+    public void start() {
+        thread = new Thread(this, "event-name-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public CompletableFuture<Boolean> submit(String userId, String eventName) {
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        synchronized (lock) {
+            if (!running) {
+                future.complete(false);
+                return future;
+            }
+
+            PendingWrite write = pending.get(userId);
+            if (write == null) {
+                pending.put(userId, new PendingWrite(eventName, future));
+            } else {
+                write.eventName = eventName;
+                write.futures.add(future);
+            }
+
+            if (pending.size() == 1) {
+                firstQueuedAt = System.currentTimeMillis();
+                lock.notifyAll();
+            } else if (pending.size() >= maxBatchSize) {
+                lock.notifyAll();
+            }
+        }
+        return future;
+    }
+
+    // Flushes whatever is still queued, then stops the writer thread
+    public void stop() {
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+
+        if (thread != null) {
+            try {
+                thread.join(10000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            Map<String, PendingWrite> batch;
+
+            synchronized (lock) {
+                try {
+                    while (running && pending.isEmpty()) {
+                        lock.wait();
+                    }
+
+                    long remaining = firstQueuedAt + lingerMillis - System.currentTimeMillis();
+                    while (running && pending.size() < maxBatchSize && remaining > 0) {
+                        lock.wait(remaining);
+                        remaining = firstQueuedAt + lingerMillis - System.currentTimeMillis();
+                    }
+                } catch (InterruptedException e) {
+                    running = false;
+                }
+
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = takeBatch();
+            }
+
+            flush(batch);
+        }
+    }
+
+    private Map<String, PendingWrite> takeBatch() {
+        if (pending.size() <= maxBatchSize) {
+            LinkedHashMap<String, PendingWrite> batch = pending;
+            pending = new LinkedHashMap<>();
+            return batch;
+        }
+
+        // Submissions kept coming during the last flush; the leftovers have already waited, so don't linger again
+        Map<String, PendingWrite> batch = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, PendingWrite>> iterator = pending.entrySet().iterator();
+        while (batch.size() < maxBatchSize) {
+            Map.Entry<String, PendingWrite> entry = iterator.next();
+            batch.put(entry.getKey(), entry.getValue());
+            iterator.remove();
+        }
+        firstQueuedAt = 0;
+        return batch;
+    }
+
+    private void flush(Map<String, PendingWrite> batch) {
+        Map<String, String> names = new LinkedHashMap<>();
+        for (Map.Entry<String, PendingWrite> entry : batch.entrySet()) {
+            names.put(entry.getKey(), entry.getValue().eventName);
+        }
+
+        Map<String, EventNameData> saved;
+        Map<String, String> taken = new HashMap<>();
+        try {
+            saved = flusher.apply(names, taken);
+        } catch (RuntimeException e) {
+            System.err.println("Error flushing " + names.size() + " event names: " + e.getMessage());
+            saved = null;
+        }
+
+        for (Map.Entry<String, PendingWrite> entry : batch.entrySet()) {
+            String takenName = taken.get(entry.getKey());
+            boolean stored = saved != null && saved.containsKey(entry.getKey());
+            for (CompletableFuture<Boolean> future : entry.getValue().futures) {
+                if (takenName != null) {
+                    future.completeExceptionally(new EventNameTakenException(takenName));
+                } else {
+                    future.complete(stored);
+                }
+            }
+        }
+    }
+
+    private static class PendingWrite {
+        private String eventName;
+        private final List<CompletableFuture<Boolean>> futures = new ArrayList<>(1);
+
+        private PendingWrite(String eventName, CompletableFuture<Boolean> future) {
+            this.eventName = eventName;
+            this.futures.add(future);
+        }
+    }
+}
@@ -1,16 +1,262 @@
 package ZREBot.repositories;
+import ZREBot.config.BotConfig;
+import ZREBot.database.DatabaseExecutor;
 import ZREBot.database.DatabaseManager;
 import ZREBot.models.EventNameData;
+import ZREBot.models.EventNameMismatch;
+import ZREBot.models.EventNameSearchCursor;
+import ZREBot.models.EventNameSearchPage;
+import ZREBot.utils.NameUtils;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.sql.*;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 public class PostgresEventNameRepository {
+    private static final int BULK_LOOKUP_CHUNK_SIZE = 5000;
+    private static final int STREAM_FETCH_SIZE = 1000;
+    // pg_trgm's default similarity threshold for the % operator, mirrored by the in-memory fallback
+    private static final double SIMILARITY_THRESHOLD = 0.3;
+    // Writers stamp updated_at when their transaction starts, so one that commits just after a snapshot was
+    // taken can carry an earlier time; reconciling looks back this far to catch those
+    private static final long SNAPSHOT_RECONCILE_OVERLAP_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final String EXACT_USER_AND_NAME_SQL =
+            "SELECT user_id, event_name, EXTRACT(EPOCH FROM created_at) * 1000 as timestamp FROM event_names WHERE user_id = ? AND event_name_normalized = ?";
+    private static final String EXACT_NAME_SQL =
+            "SELECT user_id, event_name, EXTRACT(EPOCH FROM created_at) * 1000 as timestamp FROM event_names WHERE event_name_normalized = ?";
+
     private final DatabaseManager dbManager;
+    private final boolean reservationsEnabled;
+    private final boolean checkQueryPlans;
+    private final DatabaseExecutor executor;
+    private final EventNameCache cache;
+    private final EventNameChangeListener changeListener;
+    private final EventNameWriteCoalescer writeCoalescer;
+    private final EventNameReplica replica;
+    private final EventNameSnapshot snapshot;
+    // Only used when pg_trgm isn't available
+    private volatile EventNameSearchIndex searchIndex;
+    private boolean schemaReady;
 
     public PostgresEventNameRepository() {
+        BotConfig config = new BotConfig();
         this.dbManager = DatabaseManager.getInstance();
+        this.executor = dbManager.getExecutor();
+        this.reservationsEnabled = config.isEventNameReservationEnabled();
+        this.checkQueryPlans = config.isDatabaseQueryPlanCheckEnabled();
+        this.cache = new EventNameCache(config.getEventNameCacheSize(), TimeUnit.MINUTES.toMillis(config.getEventNameCacheTtlMinutes()));
+
+        // Loaded before anything touches the database, so lookups are warm as soon as the gateway is up
+        this.snapshot = new EventNameSnapshot(Paths.get(config.getEventNameSnapshotFile()));
+        List<String> warmedIds = new ArrayList<>();
+        long snapshotTakenAt = warmCacheFromSnapshot(warmedIds);
+
+        this.replica = new EventNameReplica(Paths.get(config.getEventNameReplicaFile()), Paths.get(config.getEventNamePendingFile()),
+                Paths.get(config.getEventNameParkedFile()), config.getDatabaseRecoveryProbeSeconds(), config.getEventNameWriteBatchSize());
+        replica.setRecoveryHooks(dbManager::testConnection, this::initializeSchema, this::replayQueuedWrites, this::onResync);
+
+        // Without the database the bot still starts, answering from the replica until the recovery probe gets through
+        if (dbManager.testConnection()) {
+            initializeSchema();
+            if (snapshotTakenAt >= 0) {
+                executor.run(() -> reconcileWarmCache(snapshotTakenAt, warmedIds));
+            }
+            executor.run(this::refreshReplica);
+        } else {
+            replica.enterDegradedMode(null);
+        }
+
+        this.changeListener = new EventNameChangeListener(dbManager, this::onEventNameChanged, this::onResync);
+        changeListener.start();
+
+        this.writeCoalescer = new EventNameWriteCoalescer(config.getEventNameWriteBatchSize(), config.getEventNameWriteLingerMillis(), this::saveEventNames);
+        writeCoalescer.start();
+
+        int snapshotInterval = Math.max(1, config.getEventNameSnapshotIntervalMinutes());
+        snapshot.schedule(this::writeSnapshot, snapshotTakenAt >= 0 ? snapshotInterval : 1, snapshotInterval);
+    }
+
+    private synchronized void initializeSchema() {
+        if (schemaReady) {
+            return;
+        }
         initializeDatabase();
+        initializeChangeNotifications();
+        if (checkQueryPlans) {
+            checkExactLookupPlans();
+        }
+
+        if (!initializeTrigramSearch()) {
+            this.searchIndex = buildSearchIndex();
+            System.out.println("pg_trgm is not available, searching event names with an in-memory index (" + searchIndex.size() + " names)");
+        }
+        schemaReady = true;
+    }
+
+    public boolean isDegraded() {
+        return replica.isDegraded();
+    }
+
+    private void onEventNameChanged(String userId, String eventName) {
+        replica.applyRemoteChange(userId, eventName);
+
+        if (eventName == null) {
+            cache.invalidate(userId);
+        } else {
+            cache.invalidateIfChanged(userId, eventName);
+        }
+
+        if (searchIndex != null) {
+            if (eventName == null) {
+                searchIndex.remove(userId);
+            } else {
+                searchIndex.put(new EventNameData(userId, eventName, System.currentTimeMillis()));
+            }
+        }
+    }
+
+    // Runs after the listener reconnects and after an outage ends, when anything may have changed unseen
+    private void onResync() {
+        cache.clear();
+
+        // Built aside and swapped in so searches never see a half-loaded index. Changes committed while it loads
+        // are replayed by the listener afterwards
+        EventNameSearchIndex index = searchIndex != null ? new EventNameSearchIndex() : null;
+        Map<String, EventNameData> names = new HashMap<>();
+        long rows = forEachEventName(data -> {
+            names.put(data.getUserId(), data);
+            if (index != null) {
+                index.put(data);
+            }
+        });
+        if (rows < 0) {
+            return;
+        }
+
+        replica.replaceAll(names);
+        if (index != null) {
+            searchIndex = index;
+        }
+    }
+
+    private void refreshReplica() {
+        Map<String, EventNameData> names = new HashMap<>();
+        if (forEachEventName(data -> names.put(data.getUserId(), data)) >= 0) {
+            replica.replaceAll(names);
+        }
+    }
+
+    private long warmCacheFromSnapshot(List<String> warmedIds) {
+        long start = System.nanoTime();
+        // The snapshot lists the most recently updated names first, so a full cache keeps the likeliest lookups
+        long takenAt = snapshot.load(data -> {
+            if (cache.isFull()) {
+                return false;
+            }
+            cache.put(data.getUserId(), data);
+            warmedIds.add(data.getUserId());
+            return true;
+        });
+
+        if (takenAt >= 0) {
+            System.out.println("Warmed event name cache with " + warmedIds.size() + " names from the snapshot in " +
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+        }
+        return takenAt;
+    }
+
+    // Drops warmed entries for users whose name changed or was removed since the snapshot was taken
+    private void reconcileWarmCache(long takenAt, List<String> warmedIds) {
+        if (warmedIds.isEmpty()) {
+            return;
+        }
+
+        String sql = """
+            SELECT w.user_id, e.event_name
+            FROM unnest(?::varchar[]) AS w(user_id)
+            LEFT JOIN event_names e ON e.user_id = w.user_id
+            WHERE e.user_id IS NULL OR e.updated_at > ?
+            """;
+
+        int stale = 0;
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setArray(1, conn.createArrayOf("varchar", warmedIds.toArray()));
+            stmt.setTimestamp(2, new Timestamp(takenAt - SNAPSHOT_RECONCILE_OVERLAP_MILLIS));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String eventName = rs.getString("event_name");
+                    if (eventName == null) {
+                        cache.invalidate(rs.getString("user_id"));
+                    } else {
+                        cache.invalidateIfChanged(rs.getString("user_id"), eventName);
+                    }
+                    stale++;
+                }
+            }
+            System.out.println("Reconciled warmed event name cache against PostgreSQL, " + stale + " names changed since the snapshot");
+        } catch (SQLException e) {
+            // Can't tell what is stale, so start cold rather than serve it
+            System.err.println("Error reconciling the event name snapshot, clearing the warmed cache: " + e.getMessage());
+            cache.clear();
+        }
+    }
+
+    private void writeSnapshot() {
+        if (replica.isDegraded()) {
+            return;
+        }
+
+        String sql = "SELECT user_id, event_name, EXTRACT(EPOCH FROM created_at) * 1000 as timestamp FROM event_names ORDER BY updated_at DESC";
+        long start = System.nanoTime();
+
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(STREAM_FETCH_SIZE);
+
+                // Stamped with the database clock, which is what updated_at is compared against on the next start
+                long takenAt;
+                try (ResultSet rs = stmt.executeQuery("SELECT (EXTRACT(EPOCH FROM transaction_timestamp()) * 1000)::bigint")) {
+                    rs.next();
+                    takenAt = rs.getLong(1);
+                }
+
+                long written;
+                try (EventNameSnapshot.Writer writer = snapshot.beginWrite(takenAt);
+                     ResultSet rs = stmt.executeQuery(sql)) {
+                    while (rs.next()) {
+                        writer.add(new EventNameData(rs.getString("user_id"), rs.getString("event_name"), rs.getLong("timestamp")));
+                    }
+                    written = writer.commit();
+                }
+                conn.commit();
+
+                System.out.println("Wrote event name snapshot with " + written + " names in " +
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+            } catch (SQLException | IOException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException | IOException e) {
+            System.err.println("Error writing event name snapshot: " + e.getMessage());
+        }
+    }
+
+    private EventNameSearchIndex buildSearchIndex() {
+        EventNameSearchIndex index = new EventNameSearchIndex();
+        forEachEventName(index::put);
+        return index;
     }
 
     private void initializeDatabase() {
@@ -34,6 +280,10 @@ public class PostgresEventNameRepository {
                 stmt.execute("CREATE INDEX IF NOT EXISTS idx_event_names_created_at ON event_names(created_at)");
             }
 
+            initializeNormalizedNames(conn);
+            initializeReservations(conn);
+            initializeHistory(conn);
+
             System.out.println("Database initialized successfully");
         } catch (SQLException e) {
             System.err.println("Error initializing database: " + e.getMessage());
@@ -41,34 +291,553 @@ public class PostgresEventNameRepository {
         }
     }
 
-    public void saveEventName(String userId, String eventName) {
-        String sql = """
-            INSERT INTO event_names (user_id, event_name, updated_at) 
-            VALUES (?, ?, CURRENT_TIMESTAMP)
-            ON CONFLICT (user_id) 
-            DO UPDATE SET 
-                event_name = EXCLUDED.event_name,
-                updated_at = CURRENT_TIMESTAMP
+    // Exact name matches compare NameUtils.normalize keys through a btree index instead of ILIKE, which can't use one.
+    // The key is computed in Java rather than by a generated column so it is the same normalization the bot
+    // uses everywhere else; rows written before the column existed are filled in here
+    private void initializeNormalizedNames(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE event_names ADD COLUMN IF NOT EXISTS event_name_normalized TEXT");
+            // Not unique: names shared before the reservation policy existed would fail the build. Uniqueness is
+            // enforced by the event_name_reservations primary key when EVENT_NAME_RESERVATIONS is on
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_event_names_event_name_normalized ON event_names(event_name_normalized)");
+        }
+
+        String selectSQL = "SELECT user_id, event_name FROM event_names WHERE event_name_normalized IS NULL LIMIT " + BULK_LOOKUP_CHUNK_SIZE;
+        String updateSQL = "UPDATE event_names SET event_name_normalized = ? WHERE user_id = ? AND event_name = ?";
+        long filled = 0;
+
+        while (true) {
+            Map<String, String> pending = new HashMap<>();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(selectSQL)) {
+                while (rs.next()) {
+                    pending.put(rs.getString("user_id"), rs.getString("event_name"));
+                }
+            }
+            if (pending.isEmpty()) {
+                break;
+            }
+
+            // Matching on the name too leaves a row alone if it was renamed meanwhile; the next pass picks it up
+            try (PreparedStatement stmt = conn.prepareStatement(updateSQL)) {
+                for (Map.Entry<String, String> entry : pending.entrySet()) {
+                    stmt.setString(1, NameUtils.normalize(entry.getValue()));
+                    stmt.setString(2, entry.getKey());
+                    stmt.setString(3, entry.getValue());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            filled += pending.size();
+        }
+
+        if (filled > 0) {
+            System.out.println("Filled in normalized event names for " + filled + " users");
+        }
+    }
+
+    // One row per claimed normalized name. The primary key is the collision check: a claim is a single btree
+    // probe, and two submissions racing for the same name serialize on that index entry, not on a table lock.
+    // Kept apart from event_names so names that were already shared before the policy existed don't block it
+    private void initializeReservations(Connection conn) throws SQLException {
+        String createTableSQL = """
+            CREATE TABLE IF NOT EXISTS event_name_reservations (
+                event_name_normalized TEXT PRIMARY KEY,
+                user_id VARCHAR(20) NOT NULL,
+                reserved_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+            )
+            """;
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(createTableSQL);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_event_name_reservations_user_id ON event_name_reservations(user_id)");
+        }
+        if (!reservationsEnabled) {
+            return;
+        }
+
+        // Catch up with names changed while the policy was off: drop reservations their holder no longer uses,
+        // then give every unreserved name to whoever has had it longest
+        String releaseSQL = """
+            DELETE FROM event_name_reservations r
+            WHERE NOT EXISTS (
+                SELECT 1 FROM event_names e
+                WHERE e.user_id = r.user_id AND e.event_name_normalized = r.event_name_normalized
+            )
             """;
+        String seedSQL = """
+            INSERT INTO event_name_reservations (event_name_normalized, user_id, reserved_at)
+            SELECT DISTINCT ON (event_name_normalized) event_name_normalized, user_id, updated_at
+            FROM event_names
+            WHERE event_name_normalized IS NOT NULL
+            ORDER BY event_name_normalized, updated_at, user_id
+            ON CONFLICT DO NOTHING
+            """;
+        String sharedSQL = """
+            SELECT COUNT(*) FROM (
+                SELECT event_name_normalized FROM event_names
+                GROUP BY event_name_normalized HAVING COUNT(*) > 1
+            ) shared
+            """;
+
+        try (Statement stmt = conn.createStatement()) {
+            int released = stmt.executeUpdate(releaseSQL);
+            int seeded = stmt.executeUpdate(seedSQL);
+            if (released > 0 || seeded > 0) {
+                System.out.println("Event name reservations updated: " + seeded + " claimed, " + released + " released");
+            }
 
+            try (ResultSet rs = stmt.executeQuery(sharedSQL)) {
+                if (rs.next() && rs.getLong(1) > 0) {
+                    System.out.println(rs.getLong(1) + " event names were already shared before reservations; the earliest holder keeps each");
+                }
+            }
+        }
+    }
+
+    private void checkExactLookupPlans() {
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (String problem : findUnindexedExactLookups(conn)) {
+                    System.err.println(problem);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error checking event name lookup plans: " + e.getMessage());
+        }
+    }
+
+    // Asks the planner how exact name lookups would run with sequential scans ruled out, and describes every
+    // lookup whose plan can't use its index. On small tables Postgres rightly prefers a scan, so this only
+    // proves the index can serve them, not that it always will. Needs an open transaction
+    static List<String> findUnindexedExactLookups(Connection conn) throws SQLException {
+        // Lookup SQL -> what its plan has to contain
+        Map<String, String> lookups = new LinkedHashMap<>();
+        lookups.put(EXACT_USER_AND_NAME_SQL, "Index");
+        lookups.put(EXACT_NAME_SQL, "idx_event_names_event_name_normalized");
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SET LOCAL enable_seqscan = off");
+        }
+
+        List<String> problems = new ArrayList<>();
+        for (Map.Entry<String, String> lookup : lookups.entrySet()) {
+            String sql = lookup.getKey();
+            StringBuilder plan = new StringBuilder();
+            try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = sql.length() - sql.replace("?", "").length();
+                for (int i = 1; i <= parameters; i++) {
+                    stmt.setString(i, "0");
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+            }
+
+            if (plan.indexOf("Seq Scan") >= 0 || plan.indexOf(lookup.getValue()) < 0) {
+                problems.add("Exact event name lookup cannot use its index (" + sql + "):\n" + plan);
+            }
+        }
+        return problems;
+    }
+
+    // Exact lookups compare the indexed normalized column against the normalized query, never the raw name
+    static PreparedStatement prepareExactUserAndName(Connection conn, String userId, String name) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(EXACT_USER_AND_NAME_SQL);
+        stmt.setString(1, userId);
+        stmt.setString(2, NameUtils.normalize(name));
+        return stmt;
+    }
+
+    static PreparedStatement prepareExactName(Connection conn, String name) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(EXACT_NAME_SQL);
+        stmt.setString(1, NameUtils.normalize(name));
+        return stmt;
+    }
+
+    private void initializeHistory(Connection conn) throws SQLException {
+        // Append-only: one row per submission, valid from the moment it was saved until the user's next row
+        String createTableSQL = """
+            CREATE TABLE IF NOT EXISTS event_name_history (
+                id BIGSERIAL PRIMARY KEY,
+                user_id VARCHAR(20) NOT NULL,
+                event_name VARCHAR(50) NOT NULL,
+                valid_from TIMESTAMP WITH TIME ZONE NOT NULL
+            )
+            """;
+
+        // Names saved before history existed (or written by the migration utility) get their current name as a first entry
+        String seedSQL = """
+            INSERT INTO event_name_history (user_id, event_name, valid_from)
+            SELECT e.user_id, e.event_name, e.updated_at
+            FROM event_names e
+            WHERE NOT EXISTS (SELECT 1 FROM event_name_history h WHERE h.user_id = e.user_id)
+            """;
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(createTableSQL);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_event_name_history_user_valid_from ON event_name_history(user_id, valid_from)");
+
+            int seeded = stmt.executeUpdate(seedSQL);
+            if (seeded > 0) {
+                System.out.println("Seeded event name history for " + seeded + " users");
+            }
+        }
+    }
+
+    private boolean initializeTrigramSearch() {
         try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             Statement stmt = conn.createStatement()) {
+            try {
+                stmt.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            } catch (SQLException e) {
+                // Managed databases often don't let the bot's role create extensions; it may already be installed though
+                System.err.println("Could not create the pg_trgm extension: " + e.getMessage());
+            }
 
-            stmt.setString(1, userId);
-            stmt.setString(2, eventName.toLowerCase());
+            try (ResultSet rs = stmt.executeQuery("SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm'")) {
+                if (!rs.next()) {
+                    return false;
+                }
+            }
 
-            int rowsAffected = stmt.executeUpdate();
-            System.out.println("Event name saved for user " + userId + ": " + eventName +
-                    " (rows affected: " + rowsAffected + ")");
+            // Serves both ILIKE '%x%' and the % similarity operator, so search cost doesn't grow with the table
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_event_names_event_name_trgm ON event_names USING GIN (event_name gin_trgm_ops)");
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error initializing trigram search: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void initializeChangeNotifications() {
+        // Every write, from any bot process or the migration utility, tells listeners which user changed
+        String createFunctionSQL = """
+            CREATE OR REPLACE FUNCTION notify_event_name_change() RETURNS trigger AS $$
+            BEGIN
+                IF TG_OP = 'DELETE' THEN
+                    PERFORM pg_notify('%s', OLD.user_id || ':');
+                    RETURN OLD;
+                END IF;
+                PERFORM pg_notify('%s', NEW.user_id || ':' || NEW.event_name);
+                RETURN NEW;
+            END;
+            $$ LANGUAGE plpgsql
+            """.formatted(EventNameChangeListener.CHANNEL, EventNameChangeListener.CHANNEL);
+
+        String createTriggerSQL = """
+            CREATE TRIGGER event_names_notify
+            AFTER INSERT OR UPDATE OR DELETE ON event_names
+            FOR EACH ROW EXECUTE FUNCTION notify_event_name_change()
+            """;
 
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(createFunctionSQL);
+            stmt.execute("DROP TRIGGER IF EXISTS event_names_notify ON event_names");
+            stmt.execute(createTriggerSQL);
         } catch (SQLException e) {
-            System.err.println("Error saving event name for user " + userId + ": " + e.getMessage());
-            e.printStackTrace();
+            System.err.println("Error installing event name change trigger, other processes won't see cache invalidations: " + e.getMessage());
+        }
+    }
+
+    public boolean saveEventName(String userId, String eventName) {
+        Map<String, EventNameData> saved = saveEventNames(Map.of(userId, eventName));
+        return saved != null && saved.containsKey(userId);
+    }
+
+    public Map<String, EventNameData> saveEventNames(Map<String, String> eventNames) {
+        return saveEventNames(eventNames, new HashMap<>());
+    }
+
+    // Saves a batch of names. While Postgres is unreachable they go to the local write queue instead and
+    // are replayed once it recovers, unless reservations are on. Returns what was stored or queued, or null if neither happened.
+    // Users whose name is held by someone else are left out and added to taken: by the reservations table with
+    // reservations on, or by the local replica while queueing during an outage
+    public Map<String, EventNameData> saveEventNames(Map<String, String> eventNames, Map<String, String> taken) {
+        if (eventNames.isEmpty()) {
+            return Map.of();
+        }
+        if (reservationsEnabled && replica.isDegraded()) {
+            return refuseDuringOutage(eventNames);
+        }
+
+        Map<String, EventNameData> queued = replica.queueWrites(eventNames, taken);
+        if (queued == null) {
+            List<EventNameData> rows = new ArrayList<>(eventNames.size());
+            for (Map.Entry<String, String> entry : eventNames.entrySet()) {
+                rows.add(new EventNameData(entry.getKey(), NameUtils.toStoredName(entry.getValue()), 0));
+            }
+
+            try {
+                Map<String, EventNameData> saved = writeEventNames(rows, false, taken);
+                publishSaved(saved.values());
+                for (Map.Entry<String, String> entry : taken.entrySet()) {
+                    System.out.println("Event name '" + entry.getValue() + "' for user " + entry.getKey() + " is already reserved, not saved");
+                }
+                if (saved.isEmpty()) {
+                    return saved;
+                }
+
+                if (saved.size() == 1) {
+                    EventNameData data = saved.values().iterator().next();
+                    System.out.println("Event name saved for user " + data.getUserId() + ": " + data.getName());
+                } else {
+                    System.out.println("Saved " + saved.size() + " event names in one batch");
+                }
+                return saved;
+            } catch (SQLException e) {
+                if (!DatabaseManager.isConnectionFailure(e)) {
+                    System.err.println("Error saving " + eventNames.size() + " event names: " + e.getMessage());
+                    e.printStackTrace();
+                    return null;
+                }
+                replica.enterDegradedMode(e);
+                if (reservationsEnabled) {
+                    return refuseDuringOutage(eventNames);
+                }
+                queued = replica.queueWrites(eventNames, taken);
+            }
+        }
+
+        for (Map.Entry<String, String> entry : taken.entrySet()) {
+            System.out.println("Event name '" + entry.getValue() + "' for user " + entry.getKey() + " is held by another user, not queued");
+        }
+        if (queued != null && queued.isEmpty() && !taken.isEmpty()) {
+            return queued;
+        }
+        if (queued == null || queued.isEmpty()) {
+            System.err.println("Could not queue " + eventNames.size() + " event names locally");
+            return null;
+        }
+        for (EventNameData data : queued.values()) {
+            cache.put(data.getUserId(), data);
         }
+        System.out.println("Queued " + queued.size() + " event names locally until PostgreSQL is back (" + replica.getPendingCount() + " waiting)");
+        return queued;
+    }
+
+    // A name queued during an outage could lose its reservation on replay after the user was told it was saved,
+    // so with reservations on submissions fail until PostgreSQL is back instead of being queued
+    private Map<String, EventNameData> refuseDuringOutage(Map<String, String> eventNames) {
+        System.err.println("Not saving " + eventNames.size() + " event names, reservations can't be checked while PostgreSQL is unreachable");
+        return null;
+    }
+
+    private EventNameReplica.ReplayResult replayQueuedWrites(List<EventNameData> rows) {
+        try {
+            // Reservations couldn't be checked during the outage, so a name claimed by someone else first loses here
+            Map<String, String> taken = new HashMap<>();
+            publishSaved(writeEventNames(rows, true, taken).values());
+
+            Map<EventNameData, String> refused = new HashMap<>();
+            for (EventNameData row : rows) {
+                if (taken.containsKey(row.getUserId())) {
+                    refused.put(row, "the name is reserved by someone else");
+                }
+            }
+            return EventNameReplica.ReplayResult.applied(refused);
+        } catch (SQLException e) {
+            System.err.println("Error replaying " + rows.size() + " queued event names: " + e.getMessage());
+            return DatabaseManager.isConnectionFailure(e) ? EventNameReplica.ReplayResult.unreachable() : EventNameReplica.ReplayResult.failed();
+        }
+    }
+
+    // Only publish once the batch has committed
+    private void publishSaved(Collection<EventNameData> saved) {
+        for (EventNameData data : saved) {
+            cache.put(data.getUserId(), data);
+            if (searchIndex != null) {
+                searchIndex.put(data);
+            }
+        }
+        replica.applySaved(saved);
+    }
+
+    // Upserts every user's name in one statement and one transaction. Each user may appear only once,
+    // since Postgres refuses to update the same row twice in a single INSERT ... ON CONFLICT.
+    // keepTimestamps writes each row's own timestamp (replayed outage writes) instead of the commit time,
+    // and a row never overwrites a newer one
+    private Map<String, EventNameData> writeEventNames(Collection<EventNameData> rows, boolean keepTimestamps, Map<String, String> taken) throws SQLException {
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // Only reported once committed, so a rolled back claim never shows up as a taken name
+                Map<String, String> lost = new HashMap<>();
+                Collection<EventNameData> claimed = reservationsEnabled ? claimNames(conn, rows, lost) : rows;
+                Map<String, EventNameData> saved = claimed.isEmpty() ? new HashMap<>() : upsertEventNames(conn, claimed, keepTimestamps);
+                if (reservationsEnabled && !claimed.isEmpty()) {
+                    releaseUnusedReservations(conn, claimed);
+                }
+                conn.commit();
+                taken.putAll(lost);
+                return saved;
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+                throw e;
+            } finally {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException ignored) {
+                    // The connection is broken; Hikari discards it on close
+                }
+            }
+        }
+    }
+
+    // Claims each row's normalized name and returns the rows whose user now holds it. Runs inside the write
+    // transaction, so a claim only becomes visible together with the name it protects. ON CONFLICT DO NOTHING
+    // means a lost race is a skipped row rather than an error, with no savepoint needed per row
+    private List<EventNameData> claimNames(Connection conn, Collection<EventNameData> rows, Map<String, String> lost) throws SQLException {
+        String[] userIds = new String[rows.size()];
+        String[] names = new String[rows.size()];
+        int i = 0;
+        for (EventNameData row : rows) {
+            userIds[i] = row.getUserId();
+            names[i] = NameUtils.normalize(row.getName());
+            i++;
+        }
+
+        String claimSQL = """
+            INSERT INTO event_name_reservations (event_name_normalized, user_id)
+            SELECT name, user_id FROM unnest(?::text[], ?::varchar[]) AS c(name, user_id)
+            ON CONFLICT (event_name_normalized) DO NOTHING
+            """;
+        String holdersSQL = """
+            SELECT c.user_id
+            FROM unnest(?::text[], ?::varchar[]) AS c(name, user_id)
+            JOIN event_name_reservations r ON r.event_name_normalized = c.name AND r.user_id = c.user_id
+            """;
+
+        Array nameArray = conn.createArrayOf("text", names);
+        Array userArray = conn.createArrayOf("varchar", userIds);
+        try (PreparedStatement stmt = conn.prepareStatement(claimSQL)) {
+            stmt.setArray(1, nameArray);
+            stmt.setArray(2, userArray);
+            stmt.executeUpdate();
+        }
+
+        Set<String> holders = new HashSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement(holdersSQL)) {
+            stmt.setArray(1, nameArray);
+            stmt.setArray(2, userArray);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    holders.add(rs.getString("user_id"));
+                }
+            }
+        }
+
+        List<EventNameData> claimed = new ArrayList<>(rows.size());
+        for (EventNameData row : rows) {
+            if (holders.contains(row.getUserId())) {
+                claimed.add(row);
+            } else {
+                lost.put(row.getUserId(), row.getName());
+            }
+        }
+        return claimed;
+    }
+
+    // Frees the previous name of everyone who just claimed a new one, and the claim itself when a replayed
+    // write lost to a newer row, so each user only ever holds the name they actually have
+    private void releaseUnusedReservations(Connection conn, Collection<EventNameData> claimed) throws SQLException {
+        String releaseSQL = """
+            DELETE FROM event_name_reservations r
+            USING event_names e
+            WHERE r.user_id = ANY(?) AND e.user_id = r.user_id AND r.event_name_normalized <> e.event_name_normalized
+            """;
+
+        String[] userIds = new String[claimed.size()];
+        int i = 0;
+        for (EventNameData row : claimed) {
+            userIds[i++] = row.getUserId();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(releaseSQL)) {
+            stmt.setArray(1, conn.createArrayOf("varchar", userIds));
+            stmt.executeUpdate();
+        }
+    }
+
+    private Map<String, EventNameData> upsertEventNames(Connection conn, Collection<EventNameData> rows, boolean keepTimestamps) throws SQLException {
+        StringBuilder sql = new StringBuilder("INSERT INTO event_names (user_id, event_name, event_name_normalized, updated_at) VALUES ");
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, COALESCE(?::timestamptz, CURRENT_TIMESTAMP))");
+        }
+        sql.append("""
+
+            ON CONFLICT (user_id)
+            DO UPDATE SET
+                event_name = EXCLUDED.event_name,
+                event_name_normalized = EXCLUDED.event_name_normalized,
+                updated_at = EXCLUDED.updated_at
+            WHERE event_names.updated_at <= EXCLUDED.updated_at
+            RETURNING user_id, event_name, EXTRACT(EPOCH FROM created_at) * 1000 as timestamp, updated_at
+            """);
+
+        Map<String, EventNameData> saved = new HashMap<>();
+        Map<String, Timestamp> validFrom = new HashMap<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (EventNameData row : rows) {
+                stmt.setString(index++, row.getUserId());
+                stmt.setString(index++, row.getName());
+                stmt.setString(index++, NameUtils.normalize(row.getName()));
+                stmt.setTimestamp(index++, keepTimestamps ? new Timestamp(row.getTimestamp()) : null);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    EventNameData data = new EventNameData(
+                            rs.getString("user_id"),
+                            rs.getString("event_name"),
+                            rs.getLong("timestamp")
+                    );
+                    saved.put(data.getUserId(), data);
+                    validFrom.put(data.getUserId(), rs.getTimestamp("updated_at"));
+                }
+            }
+        }
+
+        // History rows start exactly when the upsert says the name took effect
+        try (PreparedStatement historyStmt = conn.prepareStatement(
+                "INSERT INTO event_name_history (user_id, event_name, valid_from) VALUES (?, ?, ?)")) {
+            for (EventNameData data : saved.values()) {
+                historyStmt.setString(1, data.getUserId());
+                historyStmt.setString(2, data.getName());
+                historyStmt.setTimestamp(3, validFrom.get(data.getUserId()));
+                historyStmt.addBatch();
+            }
+            historyStmt.executeBatch();
+        }
+        return saved;
     }
 
     public EventNameData getEventNameByUser(String userId) {
+        EventNameCache.Lookup cached = cache.get(userId);
+        if (cached != null) {
+            return cached.getData();
+        }
+        if (replica.isDegraded()) {
+            return replica.get(userId);
+        }
+
         String sql = "SELECT user_id, event_name, EXTRACT(EPOCH FROM created_at) * 1000 as timestamp FROM event_names WHERE user_id = ?";
+        long generation = cache.getGeneration();
 
         try (Connection conn = dbManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -76,15 +845,22 @@ public class PostgresEventNameRepository {
             stmt.setString(1, userId);
 
             try (ResultSet rs = stmt.executeQuery()) {
+                EventNameData data = null;
                 if (rs.next()) {
-                    return new EventNameData(
+                    data = new EventNameData(
                             rs.getString("user_id"),
                             rs.getString("event_name"),
                             rs.getLong("timestamp")
                     );
                 }
+                cache.putIfUnchanged(userId, data, generation);
+                return data;
             }
         } catch (SQLException e) {
+            if (DatabaseManager.isConnectionFailure(e)) {
+                replica.enterDegradedMode(e);
+                return replica.get(userId);
+            }
             System.err.println("Error retrieving event name for user " + userId + ": " + e.getMessage());
             e.printStackTrace();
         }
@@ -92,40 +868,145 @@ public class PostgresEventNameRepository {
         return null;
     }
 
-    public List<EventNameData> searchEventNameByName(String name) {
-        String sql = "SELECT user_id, event_name, EXTRACT(EPOCH FROM created_at) * 1000 as timestamp FROM event_names WHERE event_name ILIKE ?";
+    // Throws on anything but a lost connection: a map with names missing would void those users
+    public Map<String, EventNameData> getEventNamesByUsers(Collection<String> userIds) throws SQLException {
+        String sql = "SELECT user_id, event_name, EXTRACT(EPOCH FROM created_at) * 1000 as timestamp FROM event_names WHERE user_id = ANY(?)";
+        Map<String, EventNameData> results = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return results;
+        }
+
+        List<String> ids = new ArrayList<>();
+        for (String userId : userIds) {
+            EventNameCache.Lookup cached = cache.get(userId);
+            if (cached == null) {
+                ids.add(userId);
+            } else if (cached.getData() != null) {
+                results.put(userId, cached.getData());
+            }
+        }
+        if (ids.isEmpty()) {
+            return results;
+        }
+        if (replica.isDegraded()) {
+            results.putAll(replica.getAll(ids));
+            return results;
+        }
+        long generation = cache.getGeneration();
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int start = 0; start < ids.size(); start += BULK_LOOKUP_CHUNK_SIZE) {
+                List<String> chunk = ids.subList(start, Math.min(start + BULK_LOOKUP_CHUNK_SIZE, ids.size()));
+                Array idArray = conn.createArrayOf("varchar", chunk.toArray());
+                stmt.setArray(1, idArray);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        String userId = rs.getString("user_id");
+                        results.put(userId, new EventNameData(
+                                userId,
+                                rs.getString("event_name"),
+                                rs.getLong("timestamp")
+                        ));
+                    }
+                } finally {
+                    idArray.free();
+                }
+            }
+
+            for (String userId : ids) {
+                cache.putIfUnchanged(userId, results.get(userId), generation);
+            }
+        } catch (SQLException e) {
+            if (DatabaseManager.isConnectionFailure(e)) {
+                replica.enterDegradedMode(e);
+                results.putAll(replica.getAll(ids));
+                return results;
+            }
+            throw e;
+        }
+
+        return results;
+    }
+
+    public EventNameSearchPage searchEventNamePage(String name, EventNameSearchCursor after, int pageSize) {
+        if (replica.isDegraded()) {
+            return replica.searchPage(name, SIMILARITY_THRESHOLD, after, pageSize);
+        }
+        if (searchIndex != null) {
+            return searchIndex.searchPage(name, SIMILARITY_THRESHOLD, after, pageSize);
+        }
+
+        // Keyset pagination in rank order: each page starts strictly after the previous page's last row,
+        // so no page ever re-reads or skips over the rows before it
+        String sql = """
+            SELECT user_id, event_name, timestamp, score FROM (
+                SELECT user_id, event_name, EXTRACT(EPOCH FROM created_at) * 1000 as timestamp, similarity(event_name, ?) as score
+                FROM event_names
+                WHERE event_name ILIKE ? ESCAPE '\\' OR event_name % ?
+            ) matches
+            WHERE ? OR (-score, event_name, user_id) > (?, ?, ?)
+            ORDER BY score DESC, event_name, user_id
+            LIMIT ?
+            """;
         List<EventNameData> results = new ArrayList<>();
+        EventNameSearchCursor lastCursor = null;
+        boolean hasMore = false;
+        String query = name.toLowerCase();
 
         try (Connection conn = dbManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, "%" + name.toLowerCase() + "%");
+            stmt.setString(1, query);
+            stmt.setString(2, "%" + escapeLikePattern(query) + "%");
+            stmt.setString(3, query);
+            stmt.setBoolean(4, after == null);
+            stmt.setFloat(5, after != null ? -after.getScore() : 0);
+            stmt.setString(6, after != null ? after.getEventName() : "");
+            stmt.setString(7, after != null ? after.getUserId() : "");
+            // One extra row tells us whether there is a next page
+            stmt.setInt(8, pageSize + 1);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    results.add(new EventNameData(
+                    if (results.size() == pageSize) {
+                        hasMore = true;
+                        break;
+                    }
+                    EventNameData data = new EventNameData(
                             rs.getString("user_id"),
                             rs.getString("event_name"),
                             rs.getLong("timestamp")
-                    ));
+                    );
+                    results.add(data);
+                    lastCursor = new EventNameSearchCursor(rs.getFloat("score"), data.getName(), data.getUserId());
                 }
             }
         } catch (SQLException e) {
+            if (DatabaseManager.isConnectionFailure(e)) {
+                replica.enterDegradedMode(e);
+                return replica.searchPage(name, SIMILARITY_THRESHOLD, after, pageSize);
+            }
             System.err.println("Error searching event names by name '" + name + "': " + e.getMessage());
             e.printStackTrace();
         }
 
-        return results;
+        return new EventNameSearchPage(results, lastCursor, hasMore);
+    }
+
+    private String escapeLikePattern(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
     public EventNameData getEventNameByUserAndName(String userId, String name) {
-        String sql = "SELECT user_id, event_name, EXTRACT(EPOCH FROM created_at) * 1000 as timestamp FROM event_names WHERE user_id = ? AND event_name ILIKE ?";
+        if (replica.isDegraded()) {
+            return replicaMatch(userId, name);
+        }
 
         try (Connection conn = dbManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, userId);
-            stmt.setString(2, name.toLowerCase());
+             PreparedStatement stmt = prepareExactUserAndName(conn, userId, name)) {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -137,6 +1018,10 @@ public class PostgresEventNameRepository {
                 }
             }
         } catch (SQLException e) {
+            if (DatabaseManager.isConnectionFailure(e)) {
+                replica.enterDegradedMode(e);
+                return replicaMatch(userId, name);
+            }
             System.err.println("Error retrieving event name for user " + userId + " and name '" + name + "': " + e.getMessage());
             e.printStackTrace();
         }
@@ -144,27 +1029,180 @@ public class PostgresEventNameRepository {
         return null;
     }
 
-    public Map<String, EventNameData> getAllEventNames() {
-        String sql = "SELECT user_id, event_name, EXTRACT(EPOCH FROM created_at) * 1000 as timestamp FROM event_names";
+    private EventNameData replicaMatch(String userId, String name) {
+        EventNameData data = replica.get(userId);
+        return data != null && NameUtils.normalize(data.getName()).equals(NameUtils.normalize(name)) ? data : null;
+    }
+
+    // Everyone whose event name matches exactly after normalization, e.g. to spot a name claimed twice
+    public List<EventNameData> getEventNamesByExactName(String name) {
+        List<EventNameData> results = new ArrayList<>();
+        if (replica.isDegraded()) {
+            results.addAll(replica.findByName(name));
+            results.sort(Comparator.comparing(EventNameData::getUserId));
+            return results;
+        }
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = prepareExactName(conn, name)) {
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(new EventNameData(
+                            rs.getString("user_id"),
+                            rs.getString("event_name"),
+                            rs.getLong("timestamp")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving event names matching '" + name + "': " + e.getMessage());
+            e.printStackTrace();
+        }
+        results.sort(Comparator.comparing(EventNameData::getUserId));
+        return results;
+    }
+
+    // The name the user had registered at the given time, or null if they hadn't submitted one yet.
+    // Throws rather than returning null on failure, since "no name" would void the user
+    public EventNameData getEventNameAt(String userId, Instant asOf) throws SQLException {
+        String sql = """
+            SELECT user_id, event_name, EXTRACT(EPOCH FROM valid_from) * 1000 as timestamp
+            FROM event_name_history
+            WHERE user_id = ? AND valid_from <= ?
+            ORDER BY valid_from DESC
+            LIMIT 1
+            """;
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, userId);
+            stmt.setTimestamp(2, Timestamp.from(asOf));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new EventNameData(
+                            rs.getString("user_id"),
+                            rs.getString("event_name"),
+                            rs.getLong("timestamp")
+                    );
+                }
+            }
+        }
+
+        return null;
+    }
+
+    public Map<String, EventNameData> getEventNamesAt(Collection<String> userIds, Instant asOf) throws SQLException {
+        // One backward index probe per user instead of scanning each user's whole history
+        String sql = """
+            SELECT h.user_id, h.event_name, EXTRACT(EPOCH FROM h.valid_from) * 1000 as timestamp
+            FROM unnest(?::varchar[]) AS u(user_id)
+            CROSS JOIN LATERAL (
+                SELECT user_id, event_name, valid_from
+                FROM event_name_history
+                WHERE user_id = u.user_id AND valid_from <= ?
+                ORDER BY valid_from DESC
+                LIMIT 1
+            ) h
+            """;
         Map<String, EventNameData> results = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return results;
+        }
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            List<String> ids = new ArrayList<>(userIds);
+            for (int from = 0; from < ids.size(); from += BULK_LOOKUP_CHUNK_SIZE) {
+                List<String> chunk = ids.subList(from, Math.min(from + BULK_LOOKUP_CHUNK_SIZE, ids.size()));
+                stmt.setArray(1, conn.createArrayOf("varchar", chunk.toArray()));
+                stmt.setTimestamp(2, Timestamp.from(asOf));
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        String userId = rs.getString("user_id");
+                        results.put(userId, new EventNameData(
+                                userId,
+                                rs.getString("event_name"),
+                                rs.getLong("timestamp")
+                        ));
+                    }
+                }
+            }
+        }
+
+        return results;
+    }
 
+    public boolean hasAnyEventNames() {
+        // Stops at the first row instead of counting or loading the table
         try (Connection conn = dbManager.getConnection();
              Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             ResultSet rs = stmt.executeQuery("SELECT EXISTS (SELECT 1 FROM event_names)")) {
+            return rs.next() && rs.getBoolean(1);
+        } catch (SQLException e) {
+            System.err.println("Error checking for event names: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    public long countEventNames() {
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM event_names")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            System.err.println("Error counting event names: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    // Hands every stored name to the consumer without holding the table in memory. pgjdbc only uses a
+    // server-side cursor with a fetch size when autocommit is off, otherwise it buffers the whole result.
+    // Returns the number of rows visited, or -1 if the scan failed part way
+    public long forEachEventName(Consumer<EventNameData> consumer) {
+        String sql = "SELECT user_id, event_name, EXTRACT(EPOCH FROM created_at) * 1000 as timestamp FROM event_names";
+        long visited = 0;
 
-            while (rs.next()) {
-                String userId = rs.getString("user_id");
-                results.put(userId, new EventNameData(
-                        userId,
-                        rs.getString("event_name"),
-                        rs.getLong("timestamp")
-                ));
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(STREAM_FETCH_SIZE);
+
+                try (ResultSet rs = stmt.executeQuery(sql)) {
+                    while (rs.next()) {
+                        consumer.accept(new EventNameData(
+                                rs.getString("user_id"),
+                                rs.getString("event_name"),
+                                rs.getLong("timestamp")
+                        ));
+                        visited++;
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
         } catch (SQLException e) {
-            System.err.println("Error retrieving all event names: " + e.getMessage());
+            System.err.println("Error streaming event names after " + visited + " rows: " + e.getMessage());
             e.printStackTrace();
+            return -1;
         }
 
+        return visited;
+    }
+
+    // Materializes the whole table; prefer forEachEventName or hasAnyEventNames where possible
+    public Map<String, EventNameData> getAllEventNames() {
+        Map<String, EventNameData> results = new HashMap<>();
+        forEachEventName(data -> results.put(data.getUserId(), data));
         return results;
     }
 
@@ -172,36 +1210,189 @@ public class PostgresEventNameRepository {
         System.out.println("Starting migration from old repository...");
 
         Map<String, EventNameData> oldData = oldRepository.getAllEventNames();
-        int migratedCount = 0;
-
-        for (Map.Entry<String, EventNameData> entry : oldData.entrySet()) {
-            EventNameData data = entry.getValue();
 
-            String sql = """
-                INSERT INTO event_names (user_id, event_name, created_at, updated_at) 
-                VALUES (?, ?, to_timestamp(?), to_timestamp(?))
+        // Existing rows win, and every newly inserted name also starts its history in the same statement
+        String mergeSQL = """
+            WITH inserted AS (
+                INSERT INTO event_names (user_id, event_name, event_name_normalized, created_at, updated_at)
+                SELECT user_id, event_name, event_name_normalized, submitted_at, submitted_at FROM legacy_event_names
                 ON CONFLICT (user_id) DO NOTHING
-                """;
+                RETURNING user_id, event_name, updated_at
+            )
+            INSERT INTO event_name_history (user_id, event_name, valid_from)
+            SELECT user_id, event_name, updated_at FROM inserted
+            """;
+
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                long staged = stageLegacyData(conn, oldData);
 
-            try (Connection conn = dbManager.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int migratedCount;
+                try (Statement stmt = conn.createStatement()) {
+                    migratedCount = stmt.executeUpdate(mergeSQL);
+                }
+                conn.commit();
+                System.out.println("Migration completed. Migrated " + migratedCount + " event names out of " + staged + " total.");
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error migrating event names, nothing was imported: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
 
-                stmt.setString(1, data.getUserId());
-                stmt.setString(2, data.getName());
-                stmt.setDouble(3, data.getTimestamp() / 1000.0);
-                stmt.setDouble(4, data.getTimestamp() / 1000.0);
+    // Diffs the legacy store against PostgreSQL in one query. Returns every legacy entry whose name is missing
+    // or different, or null if the comparison couldn't run
+    public List<EventNameMismatch> findMismatches(Map<String, EventNameData> legacyData) {
+        String diffSQL = """
+            SELECT d.user_id, d.event_name AS legacy_name, e.event_name AS live_name
+            FROM (
+                SELECT user_id, event_name FROM legacy_event_names
+                EXCEPT
+                SELECT user_id, event_name FROM event_names
+            ) d
+            LEFT JOIN event_names e ON e.user_id = d.user_id
+            ORDER BY d.user_id
+            """;
+
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                stageLegacyData(conn, legacyData);
 
-                int rowsAffected = stmt.executeUpdate();
-                if (rowsAffected > 0) {
-                    migratedCount++;
+                List<EventNameMismatch> mismatches = new ArrayList<>();
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(diffSQL)) {
+                    while (rs.next()) {
+                        mismatches.add(new EventNameMismatch(
+                                rs.getString("user_id"),
+                                rs.getString("legacy_name"),
+                                rs.getString("live_name")
+                        ));
+                    }
                 }
+                // Read-only; committing just drops the staging table
+                conn.commit();
+                return mismatches;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error comparing legacy event names: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // Streams the legacy map into a transaction-scoped staging table over COPY. Must run with autocommit off
+    private long stageLegacyData(Connection conn, Map<String, EventNameData> legacyData) throws SQLException {
+        String createStagingSQL = """
+            CREATE TEMP TABLE legacy_event_names (
+                user_id VARCHAR(20) NOT NULL,
+                event_name VARCHAR(50) NOT NULL,
+                event_name_normalized TEXT NOT NULL,
+                submitted_at TIMESTAMP WITH TIME ZONE NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(createStagingSQL);
+        }
+
+        long staged;
+        try (CsvCopyWriter writer = new CsvCopyWriter(conn, "COPY legacy_event_names (user_id, event_name, event_name_normalized, submitted_at) FROM STDIN WITH (FORMAT csv)")) {
+            for (EventNameData data : legacyData.values()) {
+                writer.writeRow(data.getUserId(), data.getName(), NameUtils.normalize(data.getName()), Instant.ofEpochMilli(data.getTimestamp()).toString());
+            }
+            staged = writer.finish();
+        }
+
+        // Temp tables are never auto-analyzed; without stats the planner guesses badly on the join
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ANALYZE legacy_event_names");
+        }
+        return staged;
+    }
+
+    // Async variants for JDA threads; JDBC runs on the database executor, while cache hits and
+    // replica reads during an outage answer immediately
 
+    public CompletableFuture<Boolean> saveEventNameAsync(String userId, String eventName) {
+        return writeCoalescer.submit(userId, eventName);
+    }
+
+    public CompletableFuture<EventNameData> getEventNameByUserAsync(String userId) {
+        EventNameCache.Lookup cached = cache.get(userId);
+        if (cached != null || replica.isDegraded()) {
+            return CompletableFuture.completedFuture(getEventNameByUser(userId));
+        }
+        return executor.submit(() -> getEventNameByUser(userId));
+    }
+
+    public CompletableFuture<Map<String, EventNameData>> getEventNamesByUsersAsync(Collection<String> userIds) {
+        if (replica.isDegraded()) {
+            try {
+                return CompletableFuture.completedFuture(getEventNamesByUsers(userIds));
             } catch (SQLException e) {
-                System.err.println("Error migrating data for user " + data.getUserId() + ": " + e.getMessage());
+                return CompletableFuture.failedFuture(e);
             }
         }
+        return executor.submit(() -> query(() -> getEventNamesByUsers(userIds), "event names for " + userIds.size() + " users"));
+    }
+
+    public CompletableFuture<EventNameSearchPage> searchEventNamePageAsync(String name, EventNameSearchCursor after, int pageSize) {
+        if (replica.isDegraded()) {
+            return CompletableFuture.completedFuture(searchEventNamePage(name, after, pageSize));
+        }
+        return executor.submit(() -> searchEventNamePage(name, after, pageSize));
+    }
+
+    public CompletableFuture<EventNameData> getEventNameByUserAndNameAsync(String userId, String name) {
+        if (replica.isDegraded()) {
+            return CompletableFuture.completedFuture(replicaMatch(userId, name));
+        }
+        return executor.submit(() -> getEventNameByUserAndName(userId, name));
+    }
+
+    // History only lives in Postgres; answering "no name" during an outage would wrongly void people
+    public CompletableFuture<EventNameData> getEventNameAtAsync(String userId, Instant asOf) {
+        if (replica.isDegraded()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Event name history is unavailable while the database is down"));
+        }
+        return executor.submit(() -> query(() -> getEventNameAt(userId, asOf), "event name for user " + userId + " as of " + asOf));
+    }
 
-        System.out.println("Migration completed. Migrated " + migratedCount + " event names out of " + oldData.size() + " total.");
+    public CompletableFuture<Map<String, EventNameData>> getEventNamesAtAsync(Collection<String> userIds, Instant asOf) {
+        if (replica.isDegraded()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Event name history is unavailable while the database is down"));
+        }
+        return executor.submit(() -> query(() -> getEventNamesAt(userIds, asOf), "event names for " + userIds.size() + " users as of " + asOf));
+    }
+
+    // Fails the future instead of answering with an empty result the caller would read as "no name"
+    private <T> T query(SqlQuery<T> query, String description) {
+        try {
+            return query.run();
+        } catch (SQLException e) {
+            System.err.println("Error retrieving " + description + ": " + e.getMessage());
+            throw new CompletionException(e);
+        }
+    }
+
+    private interface SqlQuery<T> {
+        T run() throws SQLException;
+    }
+
+    public CompletableFuture<Map<String, EventNameData>> getAllEventNamesAsync() {
+        return executor.submit(this::getAllEventNames);
     }
 
     public void printStatistics() {
@@ -218,6 +1409,8 @@ public class PostgresEventNameRepository {
                 System.out.println("=== Event Names Database Statistics ===");
                 System.out.println("Total event names stored: " + totalCount);
                 System.out.println("Latest submission: " + (latestSubmission != null ? latestSubmission : "None"));
+                System.out.println("Cache: " + cache.getStats());
+                System.out.println("Database pool: " + dbManager.getPoolStats());
                 System.out.println("======================================");
             }
         } catch (SQLException e) {
@@ -225,7 +1418,16 @@ public class PostgresEventNameRepository {
         }
     }
 
+    public String getCacheStats() {
+        return cache.getStats();
+    }
+
     public void close() {
+        System.out.println("Event name cache at shutdown: " + cache.getStats());
+        writeCoalescer.stop();
+        changeListener.stop();
+        replica.stop();
+        snapshot.stop();
         dbManager.close();
     }
 }
\ No newline at end of file
@@ -0,0 +1,238 @@
+package ZREBot.repositories;
+
+import ZREBot.database.DatabaseExecutor;
+import ZREBot.database.DatabaseManager;
+import ZREBot.models.ReactorSnapshot;
+import ZREBot.models.UserData;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public class ReactorSnapshotRepository {
+    private final DatabaseManager dbManager;
+    private final DatabaseExecutor executor;
+
+    // Set once the tables exist; until then every connection retries creating them
+    private volatile boolean schemaReady;
+
+    public ReactorSnapshotRepository() {
+        this.dbManager = DatabaseManager.getInstance();
+        this.executor = dbManager.getExecutor();
+        // If PostgreSQL is down at startup the tables are created on the first connection that gets through
+        try (Connection conn = dbManager.getConnection()) {
+            initializeDatabase(conn);
+            System.out.println("Reactor snapshot tables initialized successfully");
+        } catch (SQLException e) {
+            System.err.println("Error initializing reactor snapshot tables: " + e.getMessage());
+        }
+    }
+
+    private Connection openConnection() throws SQLException {
+        Connection conn = dbManager.getConnection();
+        if (!schemaReady) {
+            try {
+                initializeDatabase(conn);
+            } catch (SQLException e) {
+                conn.close();
+                throw e;
+            }
+        }
+        return conn;
+    }
+
+    private synchronized void initializeDatabase(Connection conn) throws SQLException {
+        if (schemaReady) {
+            return;
+        }
+
+        String createMessagesSQL = """
+            CREATE TABLE IF NOT EXISTS reactor_snapshot_messages (
+                message_id VARCHAR(20) PRIMARY KEY,
+                channel_id VARCHAR(20) NOT NULL,
+                reactor_count INTEGER NOT NULL,
+                frozen_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+            )
+            """;
+
+        // The (message_id, user_id) primary key is what single-user lookups hit
+        String createReactorsSQL = """
+            CREATE TABLE IF NOT EXISTS reactor_snapshots (
+                message_id VARCHAR(20) NOT NULL REFERENCES reactor_snapshot_messages(message_id) ON DELETE CASCADE,
+                user_id VARCHAR(20) NOT NULL,
+                user_name VARCHAR(100) NOT NULL,
+                display_name VARCHAR(100),
+                nickname VARCHAR(100),
+                event_name VARCHAR(50),
+                PRIMARY KEY (message_id, user_id)
+            )
+            """;
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(createMessagesSQL);
+            stmt.execute(createReactorsSQL);
+        }
+        schemaReady = true;
+    }
+
+    public ReactorSnapshot saveSnapshot(String messageId, String channelId, Collection<UserData> users) {
+        String upsertMessageSQL = """
+            INSERT INTO reactor_snapshot_messages (message_id, channel_id, reactor_count, frozen_at)
+            VALUES (?, ?, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT (message_id)
+            DO UPDATE SET
+                channel_id = EXCLUDED.channel_id,
+                reactor_count = EXCLUDED.reactor_count,
+                frozen_at = CURRENT_TIMESTAMP
+            """;
+
+        try (Connection conn = openConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(upsertMessageSQL)) {
+                    stmt.setString(1, messageId);
+                    stmt.setString(2, channelId);
+                    stmt.setInt(3, users.size());
+                    stmt.executeUpdate();
+                }
+
+                // Refreezing replaces the old roster rather than merging into it
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM reactor_snapshots WHERE message_id = ?")) {
+                    stmt.setString(1, messageId);
+                    stmt.executeUpdate();
+                }
+
+                long copied = copyReactors(conn, messageId, users);
+                conn.commit();
+                System.out.println("Froze " + copied + " reactors for message " + messageId);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            return getSnapshot(messageId);
+        } catch (SQLException e) {
+            System.err.println("Error freezing reactors for message " + messageId + ": " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private long copyReactors(Connection conn, String messageId, Collection<UserData> users) throws SQLException {
+        String copySQL = "COPY reactor_snapshots (message_id, user_id, user_name, display_name, nickname, event_name) FROM STDIN WITH (FORMAT csv)";
+
+        try (CsvCopyWriter writer = new CsvCopyWriter(conn, copySQL)) {
+            for (UserData user : users) {
+                writer.writeRow(messageId, user.getUserId(), user.getUserName(), user.getDisplayName(), user.getNickname(), user.getEventName());
+            }
+            return writer.finish();
+        }
+    }
+
+    // Lookups throw instead of returning null or an empty roster: to the void checker, "not frozen" and
+    // "not in the roster" are verdicts, and a failed query must never read as one
+    public ReactorSnapshot getSnapshot(String messageId) throws SQLException {
+        String sql = "SELECT message_id, channel_id, reactor_count, EXTRACT(EPOCH FROM frozen_at) * 1000 as frozen_at FROM reactor_snapshot_messages WHERE message_id = ?";
+
+        try (Connection conn = openConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, messageId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new ReactorSnapshot(
+                            rs.getString("message_id"),
+                            rs.getString("channel_id"),
+                            rs.getInt("reactor_count"),
+                            rs.getLong("frozen_at")
+                    );
+                }
+            }
+        }
+
+        return null;
+    }
+
+    public UserData getSnapshotUser(String messageId, String userId) throws SQLException {
+        String sql = "SELECT user_id, user_name, display_name, nickname, event_name FROM reactor_snapshots WHERE message_id = ? AND user_id = ?";
+
+        try (Connection conn = openConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, messageId);
+            stmt.setString(2, userId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return toUserData(rs);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    public Map<String, UserData> getSnapshotUsers(String messageId) throws SQLException {
+        String sql = "SELECT user_id, user_name, display_name, nickname, event_name FROM reactor_snapshots WHERE message_id = ?";
+        Map<String, UserData> results = new HashMap<>();
+
+        try (Connection conn = openConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, messageId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    UserData user = toUserData(rs);
+                    results.put(user.getUserId(), user);
+                }
+            }
+        }
+
+        return results;
+    }
+
+    public CompletableFuture<ReactorSnapshot> saveSnapshotAsync(String messageId, String channelId, Collection<UserData> users) {
+        return executor.submit(() -> saveSnapshot(messageId, channelId, users));
+    }
+
+    // These complete exceptionally when the query fails, so callers' exceptionally handlers report an error
+    public CompletableFuture<ReactorSnapshot> getSnapshotAsync(String messageId) {
+        return executor.submit(() -> query(() -> getSnapshot(messageId), "reactor snapshot for message " + messageId));
+    }
+
+    public CompletableFuture<UserData> getSnapshotUserAsync(String messageId, String userId) {
+        return executor.submit(() -> query(() -> getSnapshotUser(messageId, userId), "snapshot user " + userId + " for message " + messageId));
+    }
+
+    public CompletableFuture<Map<String, UserData>> getSnapshotUsersAsync(String messageId) {
+        return executor.submit(() -> query(() -> getSnapshotUsers(messageId), "snapshot users for message " + messageId));
+    }
+
+    private <T> T query(SqlQuery<T> query, String description) {
+        try {
+            return query.run();
+        } catch (SQLException e) {
+            System.err.println("Error retrieving " + description + ": " + e.getMessage());
+            throw new CompletionException(e);
+        }
+    }
+
+    private interface SqlQuery<T> {
+        T run() throws SQLException;
+    }
+
+    private UserData toUserData(ResultSet rs) throws SQLException {
+        return new UserData(
+                rs.getString("user_name"),
+                rs.getString("display_name"),
+                rs.getString("nickname"),
+                rs.getString("event_name"),
+                rs.getString("user_id")
+        );
+    }
+}
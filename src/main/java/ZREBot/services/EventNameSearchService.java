@@ -0,0 +1,207 @@
+package ZREBot.services;
+
+import ZREBot.config.BotConfig;
+import ZREBot.models.EventNameData;
+import ZREBot.models.EventNameSearchCursor;
+import ZREBot.models.EventNameSearchPage;
+import ZREBot.repositories.PostgresEventNameRepository;
+import ZREBot.utils.UserLabelUtils;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.interactions.components.buttons.Button;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class EventNameSearchService {
+    public static final String BUTTON_PREFIX = "eventNameSearch";
+    private static final int MAX_SESSIONS = 500;
+
+    private final PostgresEventNameRepository repository;
+    private final int pageSize;
+    private final long sessionTtlMillis;
+    private final long userLookupTimeoutMillis;
+    private final Map<String, SearchSession> sessions;
+
+    public EventNameSearchService(BotConfig config, PostgresEventNameRepository repository) {
+        this.repository = repository;
+        this.pageSize = config.getEventNameSearchPageSize();
+        this.sessionTtlMillis = TimeUnit.MINUTES.toMillis(config.getEventNameSearchSessionMinutes());
+        this.userLookupTimeoutMillis = config.getUserLookupTimeoutMillis();
+        this.sessions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SearchSession> eldest) {
+                return size() > MAX_SESSIONS;
+            }
+        };
+    }
+
+    public CompletableFuture<SearchView> startSearch(String query) {
+        return repository.searchEventNamePageAsync(query, null, pageSize).thenApply(page -> {
+            if (page.isEmpty()) {
+                return new SearchView(null, query, 0, page);
+            }
+
+            SearchSession session = new SearchSession(query);
+            session.nextCursor = page.getNextCursor();
+            session.hasMore = page.hasMore();
+
+            String sessionId = UUID.randomUUID().toString();
+            synchronized (this) {
+                sweepExpired();
+                sessions.put(sessionId, session);
+            }
+            return new SearchView(sessionId, query, 0, page);
+        });
+    }
+
+    // Completes with null when the session has expired
+    public CompletableFuture<SearchView> turnPage(String buttonId) {
+        String[] parts = buttonId.split(":");
+        if (parts.length != 3) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        SearchSession session;
+        synchronized (this) {
+            sweepExpired();
+            session = sessions.get(parts[1]);
+        }
+        if (session == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // Only the cursors are kept between clicks, so each click loads exactly one page.
+        // The query runs outside the lock; if another click moved the session meanwhile, its page wins
+        int current;
+        int target;
+        EventNameSearchCursor start;
+        synchronized (session) {
+            current = session.page;
+            target = parts[2].equals("next") ? current + 1 : current - 1;
+            if (target < 0 || (target > current && !session.hasMore)) {
+                target = current;
+            }
+
+            if (target > current) {
+                if (session.pageStarts.size() <= target) {
+                    session.pageStarts.add(session.nextCursor);
+                } else {
+                    session.pageStarts.set(target, session.nextCursor);
+                }
+            }
+            start = session.pageStarts.get(target);
+            session.lastAccess = System.currentTimeMillis();
+        }
+
+        int targetPage = target;
+        return repository.searchEventNamePageAsync(session.query, start, pageSize).thenApply(page -> {
+            synchronized (session) {
+                if (session.page == current) {
+                    session.page = targetPage;
+                    session.nextCursor = page.getNextCursor();
+                    session.hasMore = page.hasMore();
+                }
+            }
+            return new SearchView(parts[1], session.query, targetPage, page);
+        });
+    }
+
+    public CompletableFuture<String> formatPage(SearchView view, JDA jda) {
+        List<String> userIds = new ArrayList<>();
+        for (EventNameData data : view.getPage().getResults()) {
+            userIds.add(data.getUserId());
+        }
+
+        return UserLabelUtils.resolveLabels(jda, userIds, userLookupTimeoutMillis).thenApply(labels -> {
+            StringBuilder outputString = new StringBuilder("🌍 **Event Name Data Matching `" + view.getQuery() + "`**\n\n");
+
+            for (EventNameData data : view.getPage().getResults()) {
+                outputString.append("> ").append(labels.get(data.getUserId())).append(" has submitted `")
+                        .append(data.getName()).append("` as their event name.\n\n");
+            }
+
+            if (view.hasPrevious() || view.getPage().hasMore()) {
+                outputString.append("*Page ").append(view.getPageIndex() + 1).append("*");
+            }
+            return outputString.toString();
+        });
+    }
+
+    public List<Button> getButtons(SearchView view) {
+        List<Button> buttons = new ArrayList<>();
+        if (view.getSessionId() == null || (!view.hasPrevious() && !view.getPage().hasMore())) {
+            return buttons;
+        }
+
+        String prefix = BUTTON_PREFIX + ":" + view.getSessionId() + ":";
+        buttons.add(Button.secondary(prefix + "prev", "◀ Previous").withDisabled(!view.hasPrevious()));
+        buttons.add(Button.secondary(prefix + "next", "Next ▶").withDisabled(!view.getPage().hasMore()));
+        return buttons;
+    }
+
+    private void sweepExpired() {
+        long now = System.currentTimeMillis();
+        Iterator<SearchSession> iterator = sessions.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().lastAccess > sessionTtlMillis) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static class SearchSession {
+        private final String query;
+        // pageStarts.get(i) is the cursor page i starts after; null for the first page
+        private final List<EventNameSearchCursor> pageStarts = new ArrayList<>();
+        private EventNameSearchCursor nextCursor;
+        private boolean hasMore;
+        private int page;
+        private volatile long lastAccess;
+
+        private SearchSession(String query) {
+            this.query = query;
+            this.pageStarts.add(null);
+            this.lastAccess = System.currentTimeMillis();
+        }
+    }
+
+    public static class SearchView {
+        private final String sessionId;
+        private final String query;
+        private final int pageIndex;
+        private final EventNameSearchPage page;
+
+        private SearchView(String sessionId, String query, int pageIndex, EventNameSearchPage page) {
+            this.sessionId = sessionId;
+            this.query = query;
+            this.pageIndex = pageIndex;
+            this.page = page;
+        }
+
+        public String getSessionId() {
+            return sessionId;
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        public int getPageIndex() {
+            return pageIndex;
+        }
+
+        public EventNameSearchPage getPage() {
+            return page;
+        }
+
+        public boolean hasPrevious() {
+            return pageIndex > 0;
+        }
+    }
+}
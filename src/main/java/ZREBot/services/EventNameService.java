@@ -2,6 +2,7 @@ package ZREBot.services;
 
 import ZREBot.models.EventNameData;
 import ZREBot.repositories.EventNameRepository;
+import ZREBot.utils.UserLabelUtils;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Guild;
@@ -12,6 +13,7 @@ import java.awt.Color;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class EventNameService {
     private final EventNameRepository repository;
@@ -63,26 +65,25 @@ public class EventNameService {
                 "Please note: this was their most recent name submission, and is what their name should be ingame (or their discord name)";
     }
 
-    public String formatEventNameSearchResults(String queryName, List<EventNameData> queryData, JDA jda) {
+    public CompletableFuture<String> formatEventNameSearchResults(String queryName, List<EventNameData> queryData, JDA jda, long lookupTimeoutMillis) {
         if (queryData.isEmpty()) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
 
-        StringBuilder outputString = new StringBuilder("🌍 **Event Name Data Matching `" + queryName + "`**\n\n");
-
+        List<String> userIds = new ArrayList<>();
         for (EventNameData data : queryData) {
-            try {
-                User qUser = jda.retrieveUserById(data.getUserId()).complete();
-                if (qUser != null) {
-                    outputString.append("> **").append(qUser.getName()).append("** has submitted `")
-                            .append(data.getName()).append("` as their event name.\n\n");
-                }
-            } catch (Exception e) {
-                outputString.append("> Unknown user (ID: ").append(data.getUserId())
-                        .append(") has submitted `").append(data.getName()).append("` as their event name.\n\n");
-            }
+            userIds.add(data.getUserId());
         }
 
-        return outputString.toString();
+        return UserLabelUtils.resolveLabels(jda, userIds, lookupTimeoutMillis).thenApply(labels -> {
+            StringBuilder outputString = new StringBuilder("🌍 **Event Name Data Matching `" + queryName + "`**\n\n");
+
+            for (EventNameData data : queryData) {
+                outputString.append("> ").append(labels.get(data.getUserId())).append(" has submitted `")
+                        .append(data.getName()).append("` as their event name.\n\n");
+            }
+
+            return outputString.toString();
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,157 @@
+package ZREBot.services;
+
+import ZREBot.config.BotConfig;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MemberResolver {
+    // Discord's request-guild-members opcode accepts at most 100 user IDs per request
+    private static final int CHUNK_SIZE = 100;
+
+    private final long ttlMillis;
+    private final Map<String, CachedMember> cache;
+
+    public MemberResolver(BotConfig config) {
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(config.getMemberCacheTtlMinutes());
+
+        int maxSize = config.getMemberCacheSize();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedMember> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public CompletableFuture<Resolution> resolve(VoidCheckScheduler.Lane lane, Guild guild, Collection<String> userIds) {
+        Map<String, Member> members = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+
+        for (String userId : new LinkedHashSet<>(userIds)) {
+            Member member = getCached(guild, userId);
+            if (member != null) {
+                members.put(userId, member);
+            } else {
+                missing.add(userId);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return CompletableFuture.completedFuture(new Resolution(members, 0));
+        }
+
+        System.out.println("Resolving " + missing.size() + " members in " +
+                ((missing.size() + CHUNK_SIZE - 1) / CHUNK_SIZE) + " chunk requests (" + members.size() + " cached)");
+
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        List<List<String>> chunks = new ArrayList<>();
+        AtomicInteger resolvedChunks = new AtomicInteger();
+        for (int start = 0; start < missing.size(); start += CHUNK_SIZE) {
+            List<String> chunk = missing.subList(start, Math.min(start + CHUNK_SIZE, missing.size()));
+            chunks.add(chunk);
+            futures.add(lane.submit(() -> retrieveChunk(guild, chunk, members)).handle((unused, error) -> {
+                if (error != null) {
+                    System.err.println("Member chunk of " + chunk.size() + " users was not resolved: " + error.getMessage());
+                    return false;
+                }
+                lane.reportProgress("👥 Resolving members... " + Math.min(resolvedChunks.incrementAndGet() * CHUNK_SIZE, missing.size()) + " of " + missing.size());
+                return true;
+            }));
+        }
+
+        // Whatever hasn't answered by the deadline counts as unresolved rather than holding up the check
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .completeOnTimeout(null, lane.getRemainingMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(v -> {
+                    int unresolved = 0;
+                    for (int i = 0; i < futures.size(); i++) {
+                        if (!futures.get(i).getNow(false)) {
+                            unresolved += chunks.get(i).size();
+                        }
+                    }
+                    synchronized (members) {
+                        return new Resolution(new HashMap<>(members), unresolved);
+                    }
+                });
+    }
+
+    private CompletableFuture<Void> retrieveChunk(Guild guild, List<String> chunk, Map<String, Member> members) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+
+        guild.retrieveMembersByIds(false, chunk.toArray(new String[0]))
+                .onSuccess(retrieved -> {
+                    synchronized (members) {
+                        for (Member member : retrieved) {
+                            members.put(member.getId(), member);
+                        }
+                    }
+                    for (Member member : retrieved) {
+                        put(guild, member);
+                    }
+                    if (retrieved.size() < chunk.size()) {
+                        System.out.println((chunk.size() - retrieved.size()) + " users in a member chunk are no longer in the server");
+                    }
+                    future.complete(null);
+                })
+                .onError(future::completeExceptionally);
+
+        return future;
+    }
+
+    private synchronized Member getCached(Guild guild, String userId) {
+        String key = guild.getId() + ":" + userId;
+        CachedMember cached = cache.get(key);
+        if (cached != null) {
+            if (System.currentTimeMillis() - cached.cachedAt <= ttlMillis) {
+                return cached.member;
+            }
+            cache.remove(key);
+        }
+
+        return guild.getMemberById(userId);
+    }
+
+    private synchronized void put(Guild guild, Member member) {
+        cache.put(guild.getId() + ":" + member.getId(), new CachedMember(member));
+    }
+
+    private static class CachedMember {
+        private final Member member;
+        private final long cachedAt;
+
+        private CachedMember(Member member) {
+            this.member = member;
+            this.cachedAt = System.currentTimeMillis();
+        }
+    }
+
+    public static class Resolution {
+        private final Map<String, Member> members;
+        private final int unresolved;
+
+        private Resolution(Map<String, Member> members, int unresolved) {
+            this.members = members;
+            this.unresolved = unresolved;
+        }
+
+        public Map<String, Member> getMembers() {
+            return members;
+        }
+
+        public int getUnresolved() {
+            return unresolved;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package ZREBot.services;
+
+import ZREBot.config.BotConfig;
+import ZREBot.models.MessageReactors;
+import net.dv8tion.jda.api.utils.TimeUtil;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+public class ReactorIndexService {
+    private static final long SWEEP_INTERVAL_MS = 60 * 1000;
+
+    private final Set<String> trackedChannels;
+    private final long maxAgeMillis;
+    private final Map<String, MessageReactors> messages;
+    private long lastSweep = System.currentTimeMillis();
+
+    public ReactorIndexService(BotConfig config) {
+        this.trackedChannels = new HashSet<>(config.getReactorIndexChannels());
+        this.maxAgeMillis = TimeUnit.HOURS.toMillis(config.getReactorIndexMaxAgeHours());
+
+        int maxMessages = config.getReactorIndexMaxMessages();
+        this.messages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MessageReactors> eldest) {
+                if (size() > maxMessages) {
+                    System.out.println("Evicting reactor index for message " + eldest.getKey() + " (index full)");
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public boolean isTrackedChannel(String channelId) {
+        return trackedChannels.contains(channelId);
+    }
+
+    public synchronized MessageReactors getCompleted(String messageId) {
+        sweepIfDue();
+
+        MessageReactors reactors = messages.get(messageId);
+        if (reactors == null || !reactors.isComplete()) {
+            return null;
+        }
+
+        reactors.touch();
+        return reactors;
+    }
+
+    public Boolean isReactor(String messageId, String userId) {
+        MessageReactors reactors = find(messageId);
+        if (reactors == null || !reactors.isComplete()) {
+            return null;
+        }
+        return reactors.hasReacted(Long.parseUnsignedLong(userId));
+    }
+
+    public synchronized void trackNewMessage(String channelId, String messageId) {
+        if (!isTrackedChannel(channelId)) {
+            return;
+        }
+
+        sweepIfDue();
+        messages.putIfAbsent(messageId, new MessageReactors(channelId, messageId, true));
+    }
+
+    public synchronized MessageReactors beginBackfill(String channelId, String messageId) {
+        MessageReactors reactors = messages.get(messageId);
+        if (reactors == null) {
+            reactors = new MessageReactors(channelId, messageId, false);
+            messages.put(messageId, reactors);
+        }
+        return reactors;
+    }
+
+    // startedEpoch is the index's epoch when the backfill began. If the index was reset since, the pages
+    // may predate missed events, so the backfill is thrown away instead
+    public synchronized void completeBackfill(MessageReactors reactors, long startedEpoch) {
+        if (reactors.getEpoch() != startedEpoch) {
+            System.out.println("Discarding reactor index backfill for message " + reactors.getMessageId() + " (index was reset meanwhile)");
+            discardBackfill(reactors.getMessageId());
+            return;
+        }
+        reactors.markComplete();
+        System.out.println("Reactor index backfilled for message " + reactors.getMessageId() +
+                " (" + reactors.getUserIds().size() + " reactors)");
+    }
+
+    // After the gateway session is lost, reaction events from the gap are never delivered, so no index
+    // can be trusted until it has been backfilled again
+    public synchronized void resetAll() {
+        for (MessageReactors reactors : messages.values()) {
+            reactors.reset();
+        }
+        System.out.println("Reset the reactor index for " + messages.size() + " messages, they will be backfilled on the next check");
+    }
+
+    public synchronized void discardBackfill(String messageId) {
+        MessageReactors reactors = messages.get(messageId);
+        if (reactors != null && !reactors.isComplete()) {
+            messages.remove(messageId);
+        }
+    }
+
+    public void onReactionAdd(String messageId, String emoji, long userId) {
+        MessageReactors reactors = find(messageId);
+        if (reactors != null) {
+            reactors.addReaction(emoji, userId);
+        }
+    }
+
+    public void onReactionRemove(String messageId, String emoji, long userId) {
+        MessageReactors reactors = find(messageId);
+        if (reactors != null) {
+            reactors.removeReaction(emoji, userId);
+        }
+    }
+
+    public void onReactionRemoveEmoji(String messageId, String emoji) {
+        MessageReactors reactors = find(messageId);
+        if (reactors != null) {
+            reactors.removeEmoji(emoji);
+        }
+    }
+
+    public void onReactionRemoveAll(String messageId) {
+        MessageReactors reactors = find(messageId);
+        if (reactors != null) {
+            reactors.clear();
+        }
+    }
+
+    public synchronized void onMessageDelete(String messageId) {
+        messages.remove(messageId);
+    }
+
+    private synchronized MessageReactors find(String messageId) {
+        return messages.get(messageId);
+    }
+
+    private void sweepIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastSweep < SWEEP_INTERVAL_MS) {
+            return;
+        }
+        lastSweep = now;
+
+        Iterator<Map.Entry<String, MessageReactors>> iterator = messages.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, MessageReactors> entry = iterator.next();
+            long createdAt = TimeUtil.getTimeCreated(Long.parseUnsignedLong(entry.getKey())).toInstant().toEpochMilli();
+            if (now - createdAt > maxAgeMillis && now - entry.getValue().getLastAccess() > maxAgeMillis) {
+                System.out.println("Evicting reactor index for message " + entry.getKey() + " (expired)");
+                iterator.remove();
+            }
+        }
+    }
+}
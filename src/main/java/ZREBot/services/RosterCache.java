@@ -0,0 +1,127 @@
+package ZREBot.services;
+
+import ZREBot.config.BotConfig;
+import ZREBot.models.VoidCheckRoster;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class RosterCache {
+    private final long ttlMillis;
+    private final int maxUsers;
+    private final ReactorIndexService reactorIndex;
+    private final Map<String, CachedRoster> rosters = new LinkedHashMap<>(16, 0.75f, true);
+
+    public RosterCache(BotConfig config, ReactorIndexService reactorIndex) {
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(config.getRosterCacheTtlSeconds());
+        this.maxUsers = config.getRosterCacheMaxUsers();
+        this.reactorIndex = reactorIndex;
+    }
+
+    public synchronized CachedRoster get(String messageId) {
+        CachedRoster cached = rosters.get(messageId);
+        if (cached == null) {
+            return null;
+        }
+
+        if (System.currentTimeMillis() - cached.builtAt > ttlMillis) {
+            rosters.remove(messageId);
+            return null;
+        }
+        return cached;
+    }
+
+    public synchronized void put(String messageId, VoidCheckRoster roster) {
+        if (roster.size() > maxUsers) {
+            return;
+        }
+
+        rosters.put(messageId, new CachedRoster(roster));
+
+        int totalUsers = 0;
+        for (CachedRoster cached : rosters.values()) {
+            totalUsers += cached.roster.size();
+        }
+
+        // Evict least recently used rosters until the cache fits its user budget again
+        Iterator<Map.Entry<String, CachedRoster>> iterator = rosters.entrySet().iterator();
+        while (totalUsers > maxUsers && iterator.hasNext()) {
+            Map.Entry<String, CachedRoster> eldest = iterator.next();
+            if (eldest.getKey().equals(messageId)) {
+                continue;
+            }
+            totalUsers -= eldest.getValue().roster.size();
+            iterator.remove();
+        }
+    }
+
+    public synchronized void onReactionAdd(String messageId, String userId) {
+        CachedRoster cached = rosters.get(messageId);
+        if (cached != null && !cached.roster.contains(userId)) {
+            cached.pendingUserIds.add(userId);
+        }
+    }
+
+    public synchronized void onReactionRemove(String messageId, String userId) {
+        CachedRoster cached = rosters.get(messageId);
+        if (cached == null) {
+            return;
+        }
+
+        // Removing one emoji doesn't mean the user has no reactions left, only the index knows that
+        Boolean stillReacted = reactorIndex.isReactor(messageId, userId);
+        if (stillReacted == null) {
+            rosters.remove(messageId);
+        } else if (!stillReacted) {
+            cached.roster.remove(userId);
+            cached.pendingUserIds.remove(userId);
+        }
+    }
+
+    public synchronized void invalidate(String messageId) {
+        rosters.remove(messageId);
+    }
+
+    public synchronized void clear() {
+        rosters.clear();
+    }
+
+    public static class CachedRoster {
+        private final VoidCheckRoster roster;
+        private final long builtAt;
+        private final Set<String> pendingUserIds = ConcurrentHashMap.newKeySet();
+
+        private CachedRoster(VoidCheckRoster roster) {
+            this.roster = roster;
+            this.builtAt = System.currentTimeMillis();
+        }
+
+        public VoidCheckRoster getRoster() {
+            return roster;
+        }
+
+        public Set<String> takePendingUserIds() {
+            Set<String> pending = new HashSet<>();
+            for (String userId : pendingUserIds) {
+                if (pendingUserIds.remove(userId)) {
+                    pending.add(userId);
+                }
+            }
+            return pending;
+        }
+
+        public void restorePendingUserIds(Collection<String> userIds) {
+            pendingUserIds.addAll(userIds);
+        }
+
+        public boolean isPending(String userId) {
+            return pendingUserIds.contains(userId);
+        }
+    }
+}
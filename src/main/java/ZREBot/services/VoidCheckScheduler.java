@@ -0,0 +1,167 @@
+package ZREBot.services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+public class VoidCheckScheduler {
+    private static final long PROGRESS_INTERVAL_MS = 3000;
+
+    private final int maxInFlight;
+    private final long deadlineMillis;
+    // Lanes with queued work, served round-robin so one huge check can't hold every slot
+    private final Deque<Lane> readyLanes = new ArrayDeque<>();
+    private int inFlight;
+
+    public VoidCheckScheduler(int maxInFlight, long deadlineMillis) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    public Lane openLane(String name, Consumer<String> onProgress) {
+        return new Lane(name, onProgress);
+    }
+
+    private void dispatch() {
+        while (true) {
+            QueuedTask<?> task;
+            boolean expired;
+            synchronized (this) {
+                if (inFlight >= maxInFlight || readyLanes.isEmpty()) {
+                    return;
+                }
+
+                Lane lane = readyLanes.poll();
+                task = lane.pending.poll();
+                if (!lane.pending.isEmpty()) {
+                    readyLanes.add(lane);
+                }
+                if (task == null) {
+                    continue;
+                }
+
+                expired = lane.getRemainingMillis() == 0;
+                if (!expired) {
+                    inFlight++;
+                }
+            }
+
+            if (expired) {
+                task.result.completeExceptionally(new TimeoutException("Void check ran past its deadline"));
+            } else {
+                task.start();
+            }
+        }
+    }
+
+    private void release() {
+        synchronized (this) {
+            inFlight--;
+        }
+        dispatch();
+    }
+
+    public class Lane {
+        private final String name;
+        private final Consumer<String> onProgress;
+        private final Deque<QueuedTask<?>> pending = new ArrayDeque<>();
+        private final long deadline;
+        private long lastProgress;
+        private boolean closed;
+
+        private Lane(String name, Consumer<String> onProgress) {
+            this.name = name;
+            this.onProgress = onProgress;
+            this.deadline = System.currentTimeMillis() + deadlineMillis;
+        }
+
+        public long getRemainingMillis() {
+            return Math.max(0, deadline - System.currentTimeMillis());
+        }
+
+        public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> request) {
+            QueuedTask<T> task = new QueuedTask<>(request);
+            boolean accepted;
+
+            synchronized (VoidCheckScheduler.this) {
+                accepted = !closed && getRemainingMillis() > 0;
+                if (accepted) {
+                    if (pending.isEmpty()) {
+                        readyLanes.add(this);
+                    }
+                    pending.add(task);
+                }
+            }
+
+            if (!accepted) {
+                task.result.completeExceptionally(closed
+                        ? new CancellationException("Void check " + name + " is closed")
+                        : new TimeoutException("Void check " + name + " ran past its deadline"));
+                return task.result;
+            }
+
+            dispatch();
+            return task.result;
+        }
+
+        public void reportProgress(String message) {
+            long now = System.currentTimeMillis();
+            synchronized (VoidCheckScheduler.this) {
+                if (closed || now - lastProgress < PROGRESS_INTERVAL_MS) {
+                    return;
+                }
+                lastProgress = now;
+                // Queued under the lock so close() can't slip in between, and the result edit sent after
+                // close() always lands after the last progress edit
+                onProgress.accept(message);
+            }
+        }
+
+        public void close() {
+            List<QueuedTask<?>> cancelled;
+            synchronized (VoidCheckScheduler.this) {
+                closed = true;
+                readyLanes.remove(this);
+                cancelled = new ArrayList<>(pending);
+                pending.clear();
+            }
+
+            for (QueuedTask<?> task : cancelled) {
+                task.result.completeExceptionally(new CancellationException("Void check " + name + " is closed"));
+            }
+        }
+    }
+
+    private class QueuedTask<T> {
+        private final Supplier<CompletableFuture<T>> request;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private QueuedTask(Supplier<CompletableFuture<T>> request) {
+            this.request = request;
+        }
+
+        private void start() {
+            CompletableFuture<T> future;
+            try {
+                future = request.get();
+            } catch (Exception e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+
+            future.whenComplete((value, error) -> {
+                release();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        }
+    }
+}
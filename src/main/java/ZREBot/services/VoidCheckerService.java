@@ -1,8 +1,13 @@
 package ZREBot.services;
 
+import ZREBot.config.BotConfig;
 import ZREBot.models.EventNameData;
+import ZREBot.models.MessageReactors;
+import ZREBot.models.ReactorSnapshot;
 import ZREBot.models.UserData;
-import ZREBot.repositories.EventNameRepository;
+import ZREBot.models.VoidCheckRoster;
+import ZREBot.repositories.PostgresEventNameRepository;
+import ZREBot.repositories.ReactorSnapshotRepository;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Message;
@@ -11,55 +16,312 @@ import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.requests.restaction.pagination.ReactionPaginationAction;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public class VoidCheckerService {
-    private final EventNameRepository eventNameRepository;
-
-    public VoidCheckerService(EventNameRepository eventNameRepository) {
+    private static final int MAX_LISTED_MATCHES = 10;
+    private static final int MAX_ENTRY_WIDTH = 24;
+    private static final int REACTION_PAGE_SIZE = 100;
+
+    private final PostgresEventNameRepository eventNameRepository;
+    private final ReactorSnapshotRepository snapshotRepository;
+    private final ReactorIndexService reactorIndex;
+    private final RosterCache rosterCache;
+    private final MemberResolver memberResolver;
+    private final BotConfig config;
+    private final VoidCheckScheduler scheduler;
+
+    public VoidCheckerService(BotConfig config, PostgresEventNameRepository eventNameRepository, ReactorSnapshotRepository snapshotRepository, ReactorIndexService reactorIndex, RosterCache rosterCache, MemberResolver memberResolver) {
+        this.config = config;
+        this.scheduler = new VoidCheckScheduler(config.getVoidCheckMaxInFlight(), TimeUnit.SECONDS.toMillis(config.getVoidCheckDeadlineSeconds()));
         this.eventNameRepository = eventNameRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.reactorIndex = reactorIndex;
+        this.rosterCache = rosterCache;
+        this.memberResolver = memberResolver;
     }
 
-    public void checkUserReaction(MessageChannel messageChannel, String messageId, String queryName, User targetUser, Guild guild, Consumer<UserCheckResult> onSuccess, Runnable onUserNotFound, Runnable onNoReactions, Runnable onNoValidReactions, Consumer<String> onMessageNotFound, Consumer<Throwable> onError) {
+    // asOf, when set, matches against the event names users had registered at that time instead of their current ones
+    public void checkUserReaction(MessageChannel messageChannel, String messageId, String queryName, User targetUser, Instant asOf, Guild guild, Consumer<String> onProgress, Consumer<UserCheckResult> onSuccess, Consumer<UserCheckResult> onUserNotFound, Runnable onNoReactions, Runnable onNoValidReactions, Consumer<String> onMessageNotFound, Consumer<Throwable> onError) {
+        VoidCheckScheduler.Lane lane = scheduler.openLane(messageId, onProgress);
+        onSuccess = closing(lane, onSuccess);
+        onUserNotFound = closing(lane, onUserNotFound);
+        onNoReactions = closing(lane, onNoReactions);
+        onNoValidReactions = closing(lane, onNoValidReactions);
+        onMessageNotFound = closing(lane, onMessageNotFound);
+        onError = closing(lane, onError);
+
+        if (targetUser != null) {
+            checkTargetedReaction(lane, messageChannel, messageId, targetUser, asOf, guild, onSuccess, onUserNotFound, onNoReactions, onMessageNotFound, onError);
+            return;
+        }
+
+        Consumer<UserCheckResult> onFound = onSuccess;
+        Consumer<UserCheckResult> onNotFound = onUserNotFound;
+        Consumer<Throwable> onFailure = onError;
+        buildRoster(lane, messageChannel, messageId, guild, (currentRoster, fromCache) -> {
+            rewindRoster(currentRoster, asOf).whenComplete((roster, error) -> {
+                if (error != null) {
+                    onFailure.accept(error);
+                    return;
+                }
+
+                List<UserData> foundUsers = roster.findByName(queryName);
+                System.out.println("Found " + foundUsers.size() + " matching users");
+
+                UserCheckResult result = new UserCheckResult(foundUsers, roster.size(), roster.size() + roster.getUnresolvedReactors(), fromCache);
+                if (foundUsers.isEmpty()) {
+                    onNotFound.accept(result);
+                    return;
+                }
+                onFound.accept(result);
+            });
+        }, onNoReactions, onNoValidReactions, onMessageNotFound, onError);
+    }
+
+    private void checkTargetedReaction(VoidCheckScheduler.Lane lane, MessageChannel messageChannel, String messageId, User targetUser, Instant asOf, Guild guild, Consumer<UserCheckResult> onSuccess, Consumer<UserCheckResult> onUserNotFound, Runnable onNoReactions, Consumer<String> onMessageNotFound, Consumer<Throwable> onError) {
         try {
+            RosterCache.CachedRoster cached = rosterCache.get(messageId);
+            if (cached != null && !cached.isPending(targetUser.getId())) {
+                System.out.println("Answering targeted void check for message " + messageId + " from the roster cache");
+                UserData userData = cached.getRoster().get(targetUser.getId());
+                int totalReactions = cached.getRoster().size();
+                if (userData == null) {
+                    onUserNotFound.accept(new UserCheckResult(List.of(), totalReactions, totalReactions, true));
+                    return;
+                }
+                if (asOf != null) {
+                    // The cached entry carries the current event name
+                    resolveTargetUser(lane, targetUser, asOf, guild, totalReactions, false, onSuccess, onError);
+                    return;
+                }
+                onSuccess.accept(new UserCheckResult(List.of(userData), totalReactions, totalReactions, true));
+                return;
+            }
+
+            MessageReactors indexed = reactorIndex.getCompleted(messageId);
+            if (indexed != null) {
+                System.out.println("Answering targeted void check for message " + messageId + " from the reactor index");
+                int totalReactions = indexed.getUserIds().size();
+                if (!indexed.hasReacted(targetUser.getIdLong())) {
+                    onUserNotFound.accept(new UserCheckResult(List.of(), totalReactions, totalReactions, false));
+                    return;
+                }
+                resolveTargetUser(lane, targetUser, asOf, guild, totalReactions, false, onSuccess, onError);
+                return;
+            }
+
             messageChannel.retrieveMessageById(messageId).queue(targetMessage -> {
                 try {
-                    List<MessageReaction> reactions = targetMessage.getReactions();
+                    List<MessageReaction> reactions = new ArrayList<>(targetMessage.getReactions());
                     if (reactions.isEmpty()) {
                         onNoReactions.run();
                         return;
                     }
 
-                    System.out.println("Starting to collect user data...");
-                    collectUserData(reactions, guild).whenComplete((userData, error) -> {
-                        System.out.println("Finished collecting user data: " + userData.size() + " users found");
+                    // The ZRE reaction is the one people are asked to use, so it is the most likely hit
+                    String zreEmoji = "<:" + config.getZreEmojiName() + ":" + config.getZreEmojiId() + ">";
+                    reactions.sort(Comparator.comparing(reaction -> !reaction.getEmoji().getFormatted().equals(zreEmoji)));
+
+                    // Without a roster or index there is no unique reactor total, only per-emoji counts in which
+                    // someone who used several emojis is counted once for each
+                    int totalReactions = 0;
+                    for (MessageReaction reaction : reactions) {
+                        totalReactions += reaction.isSelf() ? reaction.getCount() - 1 : reaction.getCount();
+                    }
+                    int reactionCount = totalReactions;
+                    AtomicInteger scanned = new AtomicInteger();
+                    AtomicBoolean partial = new AtomicBoolean(false);
+
+                    findReactor(lane, reactions, 0, targetUser.getIdLong(), scanned, partial).whenComplete((found, error) -> {
                         if (error != null) {
                             onError.accept(error);
                             return;
                         }
-
-                        if (userData.isEmpty()) {
-                            onNoValidReactions.run();
+                        if (!found) {
+                            int checked = partial.get() ? Math.min(scanned.get(), reactionCount) : reactionCount;
+                            onUserNotFound.accept(new UserCheckResult(List.of(), checked, reactionCount, false, true));
                             return;
                         }
+                        resolveTargetUser(lane, targetUser, asOf, guild, reactionCount, true, onSuccess, onError);
+                    });
+                } catch (Exception e) {
+                    onError.accept(e);
+                }
+            }, error -> onMessageNotFound.accept(error.getMessage()));
+        } catch (Exception e) {
+            onError.accept(e);
+        }
+    }
+
+    private CompletableFuture<Boolean> findReactor(VoidCheckScheduler.Lane lane, List<MessageReaction> reactions, int index, long userId, AtomicInteger scanned, AtomicBoolean partial) {
+        if (index >= reactions.size()) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        MessageReaction reaction = reactions.get(index);
+        AtomicBoolean found = new AtomicBoolean(false);
+        AtomicInteger scannedReaction = new AtomicInteger();
+
+        return pageReactors(lane, reaction, user -> {
+            scannedReaction.incrementAndGet();
+            if (user.getIdLong() == userId) {
+                found.set(true);
+                return false;
+            }
+            return true;
+        }).handle((unused, error) -> {
+            // A failed or timed out emoji only leaves a gap in coverage; the remaining emojis are still searched
+            if (error != null) {
+                System.err.println("Stopped scanning reaction " + reaction.getEmoji() + " after " + scannedReaction.get() + " users: " + error.getMessage());
+                partial.set(true);
+            }
+            return null;
+        }).thenCompose(unused -> {
+            scanned.addAndGet(scannedReaction.get());
+            System.out.println("Scanned " + scannedReaction.get() + " of " + reaction.getCount() + " users for reaction " + reaction.getEmoji() +
+                    (found.get() ? " (target found)" : ""));
+            lane.reportProgress("🔎 Searching reactions... checked " + (index + 1) + " of " + reactions.size() + " emojis");
+            return found.get() ? CompletableFuture.completedFuture(true) : findReactor(lane, reactions, index + 1, userId, scanned, partial);
+        });
+    }
+
+    private void resolveTargetUser(VoidCheckScheduler.Lane lane, User targetUser, Instant asOf, Guild guild, int totalReactions, boolean reactionCounts, Consumer<UserCheckResult> onSuccess, Consumer<Throwable> onError) {
+        CompletableFuture<EventNameData> eventName = asOf != null
+                ? eventNameRepository.getEventNameAtAsync(targetUser.getId(), asOf)
+                : eventNameRepository.getEventNameByUserAsync(targetUser.getId());
+
+        memberResolver.resolve(lane, guild, List.of(targetUser.getId())).thenCompose(resolution ->
+                eventName.thenApply(data -> {
+                    Member member = resolution.getMembers().get(targetUser.getId());
+
+                    if (member == null) {
+                        String name = targetUser.getName().toLowerCase();
+                        return new UserData(name, name, null, data != null ? data.getName() : null, targetUser.getId());
+                    }
+                    return toUserData(targetUser.getId(), member, data);
+                })
+        ).whenComplete((userData, error) -> {
+            if (error != null) {
+                onError.accept(error);
+                return;
+            }
+            onSuccess.accept(new UserCheckResult(List.of(userData), totalReactions, totalReactions, false, reactionCounts));
+        });
+    }
 
-                        UserData foundUser = findUser(userData, queryName, targetUser);
-                        System.out.println("Found user " + foundUser);
+    public void checkWinners(MessageChannel messageChannel, String messageId, List<String> winners, Guild guild, Consumer<String> onProgress, Consumer<List<WinnerCheckResult>> onSuccess, Runnable onNoReactions, Runnable onNoValidReactions, Consumer<String> onMessageNotFound, Consumer<Throwable> onError) {
+        VoidCheckScheduler.Lane lane = scheduler.openLane(messageId, onProgress);
+        Consumer<List<WinnerCheckResult>> onResults = closing(lane, onSuccess);
+
+        buildRoster(lane, messageChannel, messageId, guild, (roster, fromCache) -> {
+            List<WinnerCheckResult> results = new ArrayList<>(winners.size());
+            for (String winner : winners) {
+                results.add(new WinnerCheckResult(winner, roster.findByName(winner), roster.size(), roster.size() + roster.getUnresolvedReactors(), fromCache));
+            }
+            onResults.accept(results);
+        }, closing(lane, onNoReactions), closing(lane, onNoValidReactions), closing(lane, onMessageNotFound), closing(lane, onError));
+    }
+
+    public void freezeRoster(MessageChannel messageChannel, String messageId, Guild guild, Consumer<String> onProgress, Consumer<ReactorSnapshot> onFrozen, Runnable onNoReactions, Runnable onNoValidReactions, Consumer<String> onMessageNotFound, Consumer<Throwable> onError) {
+        VoidCheckScheduler.Lane lane = scheduler.openLane(messageId, onProgress);
+        Consumer<Throwable> onFailure = closing(lane, onError);
+        Consumer<ReactorSnapshot> onSaved = closing(lane, onFrozen);
+
+        buildRoster(lane, messageChannel, messageId, guild, (roster, fromCache) -> {
+            if (roster.isPartial()) {
+                onFailure.accept(new IllegalStateException("Only " + roster.size() + " of " + (roster.size() + roster.getUnresolvedReactors()) +
+                        " reactors were checked before the deadline, so nothing was frozen. Try again."));
+                return;
+            }
 
-                        if (foundUser == null) {
-                            onUserNotFound.run();
+            lane.reportProgress("🧊 Freezing " + roster.size() + " reactors...");
+            snapshotRepository.saveSnapshotAsync(messageId, messageChannel.getId(), roster.getUsers()).whenComplete((snapshot, error) -> {
+                if (error != null) {
+                    onFailure.accept(error);
+                } else if (snapshot == null) {
+                    onFailure.accept(new IllegalStateException("The roster could not be saved to the database"));
+                } else {
+                    onSaved.accept(snapshot);
+                }
+            });
+        }, closing(lane, onNoReactions), closing(lane, onNoValidReactions), closing(lane, onMessageNotFound), onFailure);
+    }
+
+    public CompletableFuture<ReactorSnapshot> getSnapshot(String messageId) {
+        return snapshotRepository.getSnapshotAsync(messageId);
+    }
+
+    public CompletableFuture<UserCheckResult> checkSnapshot(ReactorSnapshot snapshot, String queryName, User targetUser) {
+        int totalReactions = snapshot.getReactorCount();
+        if (targetUser != null) {
+            // Straight primary key lookup, no need to load the whole roster
+            return snapshotRepository.getSnapshotUserAsync(snapshot.getMessageId(), targetUser.getId()).thenApply(userData ->
+                    new UserCheckResult(userData != null ? List.of(userData) : List.of(), totalReactions, totalReactions, false));
+        }
+
+        return snapshotRepository.getSnapshotUsersAsync(snapshot.getMessageId()).thenApply(users -> {
+            VoidCheckRoster roster = new VoidCheckRoster(users);
+            return new UserCheckResult(roster.findByName(queryName), totalReactions, totalReactions, false);
+        });
+    }
+
+    public CompletableFuture<List<WinnerCheckResult>> checkSnapshotWinners(ReactorSnapshot snapshot, List<String> winners) {
+        return snapshotRepository.getSnapshotUsersAsync(snapshot.getMessageId()).thenApply(users -> {
+            VoidCheckRoster roster = new VoidCheckRoster(users);
+            List<WinnerCheckResult> results = new ArrayList<>(winners.size());
+            for (String winner : winners) {
+                results.add(new WinnerCheckResult(winner, roster.findByName(winner), roster.size(), roster.size(), false));
+            }
+            return results;
+        });
+    }
+
+    private void buildRoster(VoidCheckScheduler.Lane lane, MessageChannel messageChannel, String messageId, Guild guild, BiConsumer<VoidCheckRoster, Boolean> onRoster, Runnable onNoReactions, Runnable onNoValidReactions, Consumer<String> onMessageNotFound, Consumer<Throwable> onError) {
+        try {
+            RosterCache.CachedRoster cached = rosterCache.get(messageId);
+            if (cached != null) {
+                System.out.println("Answering void check for message " + messageId + " from the roster cache");
+                refreshCachedRoster(lane, cached, guild, onRoster, onError);
+                return;
+            }
+
+            MessageReactors indexed = reactorIndex.getCompleted(messageId);
+            if (indexed != null) {
+                System.out.println("Answering void check for message " + messageId + " from the reactor index");
+                buildRoster(lane, messageId, indexed.getUserIds(), 0, guild, onRoster, onNoReactions, onNoValidReactions, onError);
+                return;
+            }
+
+            messageChannel.retrieveMessageById(messageId).queue(targetMessage -> {
+                try {
+                    List<MessageReaction> reactions = targetMessage.getReactions();
+                    if (reactions.isEmpty()) {
+                        onNoReactions.run();
+                        return;
+                    }
+
+                    collectReactorIds(lane, targetMessage, reactions).whenComplete((scan, error) -> {
+                        if (error != null) {
+                            onError.accept(error);
                             return;
                         }
-                        onSuccess.accept(new UserCheckResult(foundUser, userData.size()));
+                        buildRoster(lane, messageId, scan.userIds, scan.missingReactors, guild, onRoster, onNoReactions, onNoValidReactions, onError);
                     });
-
-
                 } catch (Exception e) {
                     onError.accept(e);
                 }
@@ -69,89 +331,318 @@ public class VoidCheckerService {
         }
     }
 
+    private void refreshCachedRoster(VoidCheckScheduler.Lane lane, RosterCache.CachedRoster cached, Guild guild, BiConsumer<VoidCheckRoster, Boolean> onRoster, Consumer<Throwable> onError) {
+        VoidCheckRoster roster = cached.getRoster();
+        Set<String> pendingUserIds = cached.takePendingUserIds();
+        if (pendingUserIds.isEmpty()) {
+            onRoster.accept(roster, true);
+            return;
+        }
+
+        // Only the users who reacted since the roster was built need resolving
+        collectUserData(lane, pendingUserIds, 0, guild).whenComplete((additions, error) -> {
+            if (error != null) {
+                cached.restorePendingUserIds(pendingUserIds);
+                onError.accept(error);
+                return;
+            }
+            for (UserData userData : additions.getUsers()) {
+                roster.put(userData);
+                pendingUserIds.remove(userData.getUserId());
+            }
+
+            if (!additions.isPartial()) {
+                onRoster.accept(roster, true);
+                return;
+            }
+
+            // Keep the stragglers pending for the next check and answer this one as partial
+            cached.restorePendingUserIds(pendingUserIds);
+            Map<String, UserData> users = new HashMap<>();
+            for (UserData userData : roster.getUsers()) {
+                users.put(userData.getUserId(), userData);
+            }
+            onRoster.accept(new VoidCheckRoster(users, additions.getUnresolvedReactors()), true);
+        });
+    }
+
+    private void buildRoster(VoidCheckScheduler.Lane lane, String messageId, Set<String> userIds, int missingReactors, Guild guild, BiConsumer<VoidCheckRoster, Boolean> onRoster, Runnable onNoReactions, Runnable onNoValidReactions, Consumer<Throwable> onError) {
+        if (userIds.isEmpty() && missingReactors == 0) {
+            onNoReactions.run();
+            return;
+        }
+
+        System.out.println("Starting to collect user data...");
+        collectUserData(lane, userIds, missingReactors, guild).whenComplete((roster, error) -> {
+            if (error != null) {
+                onError.accept(error);
+                return;
+            }
+            System.out.println("Finished collecting user data: " + roster.size() + " users found" +
+                    (roster.isPartial() ? ", " + roster.getUnresolvedReactors() + " reactors unresolved" : ""));
+
+            if (roster.isPartial()) {
+                // A partial roster would give wrong answers to later checks, so it is never cached
+                onRoster.accept(roster, false);
+                return;
+            }
+            if (roster.isEmpty()) {
+                onNoValidReactions.run();
+                return;
+            }
+            rosterCache.put(messageId, roster);
+            onRoster.accept(roster, false);
+        });
+    }
+
+    private <T> Consumer<T> closing(VoidCheckScheduler.Lane lane, Consumer<T> callback) {
+        return value -> {
+            lane.close();
+            callback.accept(value);
+        };
+    }
+
+    private Runnable closing(VoidCheckScheduler.Lane lane, Runnable callback) {
+        return () -> {
+            lane.close();
+            callback.run();
+        };
+    }
+
     public String formatUserCheckResult(UserCheckResult result) {
         UserData foundUser = result.getUserData();
-        int totalReactions = result.getTotalReactions();
+        String outOf = formatOutOf(result);
+
+        if (result.isAmbiguous()) {
+            StringBuilder output = new StringBuilder("⚠️ **" + result.getMatches().size() + " reacted users match that name (" + outOf + "):** \n\n" + "Make sure the winner is the right one before deciding on a void...\n");
+            List<UserData> matches = result.getMatches();
+            for (UserData match : matches.subList(0, Math.min(matches.size(), MAX_LISTED_MATCHES))) {
+                output.append(formatUserInfo(match));
+            }
+            if (matches.size() > MAX_LISTED_MATCHES) {
+                output.append("...and ").append(matches.size() - MAX_LISTED_MATCHES).append(" more. Check these users individually.");
+            }
+            return output.append(formatPartialNote(result)).append(formatCacheNote(result.isFromCache())).toString();
+        }
+
+        return "🌍 **" + foundUser.getUserName() + " (" + foundUser.getUserId() + ") is reacted (" + outOf + "):** \n\n" + "Here is all the info I was able to find on the user you searched for...\n" + formatUserInfo(foundUser) + "\n" + "As long as the IGN of this user is any of the names above, this user's wins **should not be voided.**" + formatPartialNote(result) + formatCacheNote(result.isFromCache());
+    }
+
+    public String formatWinnerResults(List<WinnerCheckResult> results) {
+        return formatWinnerResults(results, "");
+    }
+
+    public String formatWinnerResults(List<WinnerCheckResult> results, String note) {
+        int reacted = 0;
+        int notReacted = 0;
+        int ambiguous = 0;
+        int entryWidth = "ENTRY".length();
+        for (WinnerCheckResult result : results) {
+            entryWidth = Math.max(entryWidth, Math.min(result.getEntry().length(), MAX_ENTRY_WIDTH));
+        }
+
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%-3s %-" + entryWidth + "s %s%n", "#", "ENTRY", "RESULT"));
+        for (int i = 0; i < results.size(); i++) {
+            WinnerCheckResult result = results.get(i);
+            String entry = result.getEntry().length() > MAX_ENTRY_WIDTH
+                    ? result.getEntry().substring(0, MAX_ENTRY_WIDTH - 1) + "…"
+                    : result.getEntry();
+            String verdict;
+
+            if (result.isAmbiguous()) {
+                ambiguous++;
+                List<String> userIds = new ArrayList<>();
+                for (UserData match : result.getMatches()) {
+                    userIds.add(match.getUserId());
+                }
+                verdict = "AMBIGUOUS (" + String.join(", ", userIds) + ")";
+            } else if (result.isReacted()) {
+                reacted++;
+                UserData match = result.getMatches().get(0);
+                verdict = "REACTED (" + match.getUserName() + ", " + match.getUserId() + ")";
+            } else if (result.isPartial()) {
+                notReacted++;
+                verdict = "NOT FOUND - RECHECK";
+            } else {
+                notReacted++;
+                verdict = "NOT REACTED - VOID";
+            }
+
+            table.append(String.format("%-3d %-" + entryWidth + "s %s%n", i + 1, entry, verdict));
+        }
 
-        return "🌍 **" + foundUser.getUserName() + " (" + foundUser.getUserId() + ") is reacted (out of `" + totalReactions + "` reacts):** \n\n" + "Here is all the info I was able to find on the user you searched for...\n" + "```\n" + "USERNAME: " + foundUser.getUserName() + "\n" + "DISPLAY NAME: " + foundUser.getDisplayName() + "\n" + "NICKNAME: " + (foundUser.getNickname() != null ? foundUser.getNickname() : "None") + "\n" + "EVENTNAME: " + (foundUser.getEventName() != null ? foundUser.getEventName() : "None") + "\n" + "USERID: " + foundUser.getUserId() + "\n" + "```\n\n" + "As long as the IGN of this user is any of the names above, this user's wins **should not be voided.**";
+        int totalReactions = results.isEmpty() ? 0 : results.get(0).getTotalReactions();
+        int checkedReactions = results.isEmpty() ? 0 : results.get(0).getCheckedReactions();
+        boolean fromCache = !results.isEmpty() && results.get(0).isFromCache();
+        return "🌍 **Checked " + results.size() + " winners against `" + totalReactions + "` reacts:** " +
+                reacted + " reacted, " + notReacted + " not reacted, " + ambiguous + " ambiguous" +
+                formatPartialNote(checkedReactions, totalReactions) + formatCacheNote(fromCache) + note + "\n\n" +
+                "```\n" + table + "```";
     }
 
+    private String formatOutOf(UserCheckResult result) {
+        return result.isReactionCount()
+                ? "out of `" + result.getTotalReactions() + "` reactions across all emojis"
+                : "out of `" + result.getTotalReactions() + "` reacts";
+    }
+
+    public String formatPartialNote(UserCheckResult result) {
+        return formatPartialNote(result.getCheckedReactions(), result.getTotalReactions(), result.isReactionCount() ? "reactions" : "reactors");
+    }
 
-    private CompletableFuture<Map<String, UserData>> collectUserData(List<MessageReaction> reactions, Guild guild) {
-        Map<String, UserData> userData = new HashMap<>();
-        List<CompletableFuture<Void>> futures = new ArrayList<>();
+    public String formatPartialNote(int checkedReactions, int totalReactions) {
+        return formatPartialNote(checkedReactions, totalReactions, "reactors");
+    }
+
+    private String formatPartialNote(int checkedReactions, int totalReactions, String unit) {
+        if (checkedReactions >= totalReactions) {
+            return "";
+        }
+        return "\n\n⚠️ *Only checked " + String.format("%,d", checkedReactions) + " of " + String.format("%,d", totalReactions) +
+                " " + unit + " before the deadline. Anyone not found may still have reacted, so run the check again before voiding.*";
+    }
+
+    public String formatSnapshotNote(ReactorSnapshot snapshot) {
+        return "\n\n*🧊 Answered from the roster frozen <t:" + (snapshot.getFrozenAt() / 1000) + ":f> (`" + snapshot.getReactorCount() + "` reactors).*";
+    }
+
+    public String formatAsOfNote(Instant asOf) {
+        return asOf != null ? "\n\n*🕰️ Event names matched as registered at <t:" + asOf.getEpochSecond() + ":f>.*" : "";
+    }
+
+    private String formatCacheNote(boolean fromCache) {
+        return fromCache ? "\n\n*⚡ Answered from a cached reaction roster.*" : "";
+    }
+
+    private String formatUserInfo(UserData user) {
+        return "```\n" + "USERNAME: " + user.getUserName() + "\n" + "DISPLAY NAME: " + user.getDisplayName() + "\n" + "NICKNAME: " + (user.getNickname() != null ? user.getNickname() : "None") + "\n" + "EVENTNAME: " + (user.getEventName() != null ? user.getEventName() : "None") + "\n" + "USERID: " + user.getUserId() + "\n" + "```\n";
+    }
+
+
+    private CompletableFuture<ReactorScan> collectReactorIds(VoidCheckScheduler.Lane lane, Message message, List<MessageReaction> reactions) {
+        String channelId = message.getChannel().getId();
+        MessageReactors backfill = reactorIndex.isTrackedChannel(channelId)
+                ? reactorIndex.beginBackfill(channelId, message.getId())
+                : new MessageReactors(channelId, message.getId(), false);
+        long backfillEpoch = backfill.getEpoch();
+        // Every reaction's future is created up front, so allOf always sees the complete set
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(reactions.size());
+        List<AtomicInteger> pagedCounts = new ArrayList<>(reactions.size());
+        AtomicInteger collected = new AtomicInteger();
 
         System.out.println("Processing " + reactions.size() + " reactions...");
         for (MessageReaction reaction : reactions) {
             System.out.println("Processing reaction: " + reaction.getEmoji() + " with count: " + reaction.getCount());
+            String emoji = reaction.getEmoji().getFormatted();
+            AtomicInteger paged = new AtomicInteger();
+            pagedCounts.add(paged);
 
-            CompletableFuture<Void> reactionFeature = new CompletableFuture<>();
-            futures.add(reactionFeature);
-
-            reaction.retrieveUsers().forEachAsync(user -> {
+            futures.add(pageReactors(lane, reaction, user -> {
+                paged.incrementAndGet();
                 if (!user.isBot()) {
-                    CompletableFuture<Void> memberFuture = new CompletableFuture<>();
-                    futures.add(memberFuture);
-
-                    guild.retrieveMemberById(user.getId()).queue(member -> {
-                        try {
-                            String eventName = null;
-                            EventNameData data = eventNameRepository.getEventNameByUser(user.getId());
-                            if (data != null) {
-                                eventName = data.getName();
-                            }
-
-                            synchronized (userData) {
-                                userData.put(user.getId(), new UserData(user.getName().toLowerCase(), member.getEffectiveName().toLowerCase(), member.getNickname() != null ? member.getNickname().toLowerCase() : null, eventName, user.getId()));
-                                System.out.println("Retrieved " + userData.size() + " users for reaction " + reaction.getEmoji());
-                            }
-
-                            memberFuture.complete(null);
-                        } catch (Exception e) {
-                            System.err.println("Error processing user " + user.getId() + ": " + e.getMessage());
-                            memberFuture.completeExceptionally(e);
-                        }
-                    }, error -> {
-                        System.err.println("Error retrieving member " + user.getId() + ": " + error.getMessage());
-                        memberFuture.completeExceptionally(error);
-                    });
+                    backfill.addBackfilledReaction(emoji, user.getIdLong());
                 }
+                lane.reportProgress("🔎 Collecting reactions... " + collected.incrementAndGet() + " collected so far");
                 return true;
-            }).whenComplete((unused, throwable) -> {
-                if (throwable != null) {
-                    System.err.println("Error iterating users for reaction: " + throwable.getMessage());
+            }).handle((unused, error) -> {
+                if (error != null) {
+                    System.err.println("Stopped collecting reaction " + reaction.getEmoji() + " after " + paged.get() + " users: " + error.getMessage());
+                    return false;
                 }
-                reactionFeature.complete(null);
-            });
+                return true;
+            }));
         }
 
-        // Wait for all member retrievals to complete
-        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(v -> userData);
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .completeOnTimeout(null, lane.getRemainingMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(unused -> {
+                    int missingReactors = 0;
+                    for (int i = 0; i < reactions.size(); i++) {
+                        if (!futures.get(i).getNow(false)) {
+                            MessageReaction reaction = reactions.get(i);
+                            int expected = reaction.isSelf() ? reaction.getCount() - 1 : reaction.getCount();
+                            missingReactors += Math.max(0, expected - pagedCounts.get(i).get());
+                        }
+                    }
+
+                    // Only a fully paged message is trustworthy enough to answer later checks from the index
+                    if (missingReactors > 0) {
+                        reactorIndex.discardBackfill(message.getId());
+                    } else if (reactorIndex.isTrackedChannel(channelId)) {
+                        reactorIndex.completeBackfill(backfill, backfillEpoch);
+                    }
+                    return new ReactorScan(backfill.getUserIds(), missingReactors);
+                });
+    }
+
+    private CompletableFuture<Void> pageReactors(VoidCheckScheduler.Lane lane, MessageReaction reaction, Predicate<User> consumer) {
+        ReactionPaginationAction pages = reaction.retrieveUsers().limit(REACTION_PAGE_SIZE).cache(false);
+        return nextReactorPage(lane, pages, consumer);
+    }
+
+    private CompletableFuture<Void> nextReactorPage(VoidCheckScheduler.Lane lane, ReactionPaginationAction pages, Predicate<User> consumer) {
+        return lane.submit(pages::submit).thenCompose(users -> {
+            for (User user : users) {
+                if (!consumer.test(user)) {
+                    return CompletableFuture.completedFuture(null);
+                }
+            }
+
+            if (users.size() < REACTION_PAGE_SIZE) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return nextReactorPage(lane, pages, consumer);
+        });
+    }
+
+    private CompletableFuture<VoidCheckRoster> collectUserData(VoidCheckScheduler.Lane lane, Set<String> userIds, int missingReactors, Guild guild) {
+        // Resolve members in gateway chunks, then every event name in one lookup
+        return memberResolver.resolve(lane, guild, userIds).thenCompose(resolution -> {
+            Map<String, Member> members = resolution.getMembers();
+            return eventNameRepository.getEventNamesByUsersAsync(members.keySet()).thenApply(eventNames -> {
+                Map<String, UserData> userData = new HashMap<>();
+
+                for (Map.Entry<String, Member> entry : members.entrySet()) {
+                    String userId = entry.getKey();
+                    userData.put(userId, toUserData(userId, entry.getValue(), eventNames.get(userId)));
+                }
+                return new VoidCheckRoster(userData, resolution.getUnresolved() + missingReactors);
+            });
+        });
     }
 
-    private UserData findUser(Map<String, UserData> userData, String queryName, User targetUser) {
-        System.out.println("Entering findUser with queryName = " + queryName + ", targetUser = " + targetUser);
-        if (queryName != null && targetUser != null) {
-            UserData data = userData.get(targetUser.getId());
-            System.out.println("data " + data);
-            return data;
+    // A copy of the roster carrying the names each user had registered at asOf. Never cached, the roster cache holds current names
+    private CompletableFuture<VoidCheckRoster> rewindRoster(VoidCheckRoster roster, Instant asOf) {
+        if (asOf == null) {
+            return CompletableFuture.completedFuture(roster);
         }
 
-        if (targetUser != null) {
-            System.out.println("targetUser " + targetUser);
-            return userData.get(targetUser.getId());
+        Collection<UserData> users = roster.getUsers();
+        List<String> userIds = new ArrayList<>(users.size());
+        for (UserData user : users) {
+            userIds.add(user.getUserId());
         }
 
-        if (queryName != null) {
-            for (UserData data : userData.values()) {
-                if (data.getUserName().equals(queryName) || data.getDisplayName().equals(queryName) || (data.getNickname() != null && data.getNickname().equals(queryName)) || (data.getEventName() != null && data.getEventName().equals(queryName))) {
-                    System.out.println("data " + data);
-                    return data;
-                }
+        return eventNameRepository.getEventNamesAtAsync(userIds, asOf).thenApply(eventNames -> {
+            Map<String, UserData> rewound = new HashMap<>();
+            for (UserData user : users) {
+                EventNameData data = eventNames.get(user.getUserId());
+                rewound.put(user.getUserId(), new UserData(user.getUserName(), user.getDisplayName(), user.getNickname(),
+                        data != null ? data.getName() : null, user.getUserId()));
             }
-        }
+            return new VoidCheckRoster(rewound, roster.getUnresolvedReactors());
+        });
+    }
 
-        return null;
+    private UserData toUserData(String userId, Member member, EventNameData eventName) {
+        return new UserData(
+                member.getUser().getName().toLowerCase(),
+                member.getEffectiveName().toLowerCase(),
+                member.getNickname() != null ? member.getNickname().toLowerCase() : null,
+                eventName != null ? eventName.getName() : null,
+                userId
+        );
     }
 
     public CompletableFuture<Boolean> doesMessageExist(MessageChannel messageChannel, String messageId) {
@@ -162,21 +653,114 @@ public class VoidCheckerService {
         return future;
     }
 
+    private static class ReactorScan {
+        private final Set<String> userIds;
+        private final int missingReactors;
+
+        private ReactorScan(Set<String> userIds, int missingReactors) {
+            this.userIds = userIds;
+            this.missingReactors = missingReactors;
+        }
+    }
+
     public static class UserCheckResult {
-        private final UserData userData;
+        private final List<UserData> matches;
+        private final int checkedReactions;
         private final int totalReactions;
+        private final boolean fromCache;
+        // True when the totals are per-emoji reaction counts rather than unique reactors
+        private final boolean reactionCount;
 
-        public UserCheckResult(UserData userData, int totalReactions) {
-            this.userData = userData;
+        public UserCheckResult(List<UserData> matches, int checkedReactions, int totalReactions, boolean fromCache) {
+            this(matches, checkedReactions, totalReactions, fromCache, false);
+        }
+
+        public UserCheckResult(List<UserData> matches, int checkedReactions, int totalReactions, boolean fromCache, boolean reactionCount) {
+            this.matches = matches;
+            this.checkedReactions = checkedReactions;
             this.totalReactions = totalReactions;
+            this.fromCache = fromCache;
+            this.reactionCount = reactionCount;
         }
 
         public UserData getUserData() {
-            return userData;
+            return matches.get(0);
+        }
+
+        public List<UserData> getMatches() {
+            return matches;
+        }
+
+        public boolean isAmbiguous() {
+            return matches.size() > 1;
+        }
+
+        public int getCheckedReactions() {
+            return checkedReactions;
         }
 
         public int getTotalReactions() {
             return totalReactions;
         }
+
+        public boolean isPartial() {
+            return checkedReactions < totalReactions;
+        }
+
+        public boolean isFromCache() {
+            return fromCache;
+        }
+
+        public boolean isReactionCount() {
+            return reactionCount;
+        }
+    }
+
+    public static class WinnerCheckResult {
+        private final String entry;
+        private final List<UserData> matches;
+        private final int checkedReactions;
+        private final int totalReactions;
+        private final boolean fromCache;
+
+        public WinnerCheckResult(String entry, List<UserData> matches, int checkedReactions, int totalReactions, boolean fromCache) {
+            this.entry = entry;
+            this.matches = matches;
+            this.checkedReactions = checkedReactions;
+            this.totalReactions = totalReactions;
+            this.fromCache = fromCache;
+        }
+
+        public String getEntry() {
+            return entry;
+        }
+
+        public List<UserData> getMatches() {
+            return matches;
+        }
+
+        public int getCheckedReactions() {
+            return checkedReactions;
+        }
+
+        public int getTotalReactions() {
+            return totalReactions;
+        }
+
+        public boolean isPartial() {
+            return checkedReactions < totalReactions;
+        }
+
+        public boolean isFromCache() {
+            return fromCache;
+        }
+
+        public boolean isReacted() {
+            return !matches.isEmpty();
+        }
+
+        public boolean isAmbiguous() {
+            return matches.size() > 1;
+        }
     }
 }
\ No newline at end of file
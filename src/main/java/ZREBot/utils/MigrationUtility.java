@@ -4,11 +4,14 @@ import ZREBot.database.DatabaseManager;
 import ZREBot.repositories.EventNameRepository;
 import ZREBot.repositories.PostgresEventNameRepository;
 import ZREBot.models.EventNameData;
+import ZREBot.models.EventNameMismatch;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 
 public class MigrationUtility {
+    private static final int MAX_LISTED_MISMATCHES = 50;
 
     public static void main(String[] args) {
         System.out.println("=== ZREBot Data Migration Utility ===");
@@ -61,10 +64,8 @@ public class MigrationUtility {
 
             // Check if new database has data
             PostgresEventNameRepository newRepo = new PostgresEventNameRepository();
-            Map<String, EventNameData> newData = newRepo.getAllEventNames();
-
-            if (!newData.isEmpty()) {
-                System.out.println("⚠️ Warning: The PostgreSQL database already contains " + newData.size() + " event names.");
+            if (newRepo.hasAnyEventNames()) {
+                System.out.println("⚠️ Warning: The PostgreSQL database already contains " + newRepo.countEventNames() + " event names.");
                 System.out.print("Do you want to proceed with migration? Existing data will be preserved. (y/N): ");
 
                 String response = scanner.nextLine().trim().toLowerCase();
@@ -88,10 +89,9 @@ public class MigrationUtility {
             newRepo.migrateFromOldRepository(oldRepo);
 
             // Verify migration
-            Map<String, EventNameData> migratedData = newRepo.getAllEventNames();
             System.out.println();
             System.out.println("✅ Migration completed!");
-            System.out.println("📊 Total entries in PostgreSQL database: " + migratedData.size());
+            System.out.println("📊 Total entries in PostgreSQL database: " + newRepo.countEventNames());
 
             // Show statistics
             newRepo.printStatistics();
@@ -118,35 +118,29 @@ public class MigrationUtility {
             PostgresEventNameRepository newRepo = new PostgresEventNameRepository();
 
             Map<String, EventNameData> oldData = oldRepo.getAllEventNames();
-            Map<String, EventNameData> newData = newRepo.getAllEventNames();
-
             System.out.println("Old system: " + oldData.size() + " entries");
-            System.out.println("New system: " + newData.size() + " entries");
 
-            int matchCount = 0;
-            int mismatchCount = 0;
+            List<EventNameMismatch> mismatches = newRepo.findMismatches(oldData);
+            if (mismatches == null) {
+                System.out.println("⚠️ Verification could not run, see the error above.");
+                return;
+            }
 
-            for (Map.Entry<String, EventNameData> entry : oldData.entrySet()) {
-                String userId = entry.getKey();
-                EventNameData oldEventData = entry.getValue();
-                EventNameData newEventData = newData.get(userId);
-
-                if (newEventData != null &&
-                        oldEventData.getName().equals(newEventData.getName())) {
-                    matchCount++;
-                } else {
-                    mismatchCount++;
-                    System.out.println("❌ Mismatch for user " + userId +
-                            ": old='" + oldEventData.getName() +
-                            "', new='" + (newEventData != null ? newEventData.getName() : "NOT FOUND") + "'");
-                }
+            int shown = Math.min(mismatches.size(), MAX_LISTED_MISMATCHES);
+            for (EventNameMismatch mismatch : mismatches.subList(0, shown)) {
+                System.out.println("❌ Mismatch for user " + mismatch.getUserId() +
+                        ": old='" + mismatch.getLegacyName() +
+                        "', new='" + (mismatch.getLiveName() != null ? mismatch.getLiveName() : "NOT FOUND") + "'");
+            }
+            if (mismatches.size() > shown) {
+                System.out.println("  ... and " + (mismatches.size() - shown) + " more mismatches");
             }
 
             System.out.println();
-            System.out.println("✅ Matches: " + matchCount);
-            System.out.println("❌ Mismatches: " + mismatchCount);
+            System.out.println("✅ Matches: " + (oldData.size() - mismatches.size()));
+            System.out.println("❌ Mismatches: " + mismatches.size());
 
-            if (mismatchCount == 0) {
+            if (mismatches.isEmpty()) {
                 System.out.println("🎉 Migration verification successful! All data matches.");
             } else {
                 System.out.println("⚠️ Some data mismatches found. Please review the migration.");
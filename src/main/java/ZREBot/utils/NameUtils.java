@@ -0,0 +1,34 @@
+package ZREBot.utils;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public class NameUtils {
+    // Unicode whitespace too, so a name pasted with non-breaking or ideographic spaces still matches
+    private static final Pattern WHITESPACE = Pattern.compile("[\\s\\p{Z}]+");
+
+    // Matching key for names: NFKC (so full-width and styled letters compare equal to plain ones),
+    // case folded and with whitespace runs folded to one space. Stored as event_name_normalized
+    public static String normalize(String name) {
+        if (name == null) {
+            return null;
+        }
+        String folded = Normalizer.normalize(name, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        // Lowercasing can produce sequences NFKC would compose differently, so normalize once more
+        return foldWhitespace(Normalizer.normalize(folded, Normalizer.Form.NFKC));
+    }
+
+    // The form an event name is saved and shown in: lowercased and with whitespace folded, but otherwise
+    // exactly as typed, since it has to match what the player uses in game
+    public static String toStoredName(String name) {
+        if (name == null) {
+            return null;
+        }
+        return foldWhitespace(name.toLowerCase(Locale.ROOT));
+    }
+
+    private static String foldWhitespace(String value) {
+        return WHITESPACE.matcher(value).replaceAll(" ").trim();
+    }
+}
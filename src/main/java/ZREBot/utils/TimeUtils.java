@@ -0,0 +1,46 @@
+package ZREBot.utils;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class TimeUtils {
+    private static final Pattern DISCORD_TIMESTAMP = Pattern.compile("<t:(-?\\d+)(?::[tTdDfFR])?>");
+
+    // Accepts a Discord timestamp (<t:1700000000:f>), unix seconds, or an ISO date/time (UTC unless an offset is given).
+    // Returns null when the input isn't any of those
+    public static Instant parseInstant(String input) {
+        if (input == null) {
+            return null;
+        }
+        String value = input.trim();
+
+        Matcher matcher = DISCORD_TIMESTAMP.matcher(value);
+        if (matcher.matches()) {
+            return Instant.ofEpochSecond(Long.parseLong(matcher.group(1)));
+        }
+        if (value.matches("\\d{9,11}")) {
+            return Instant.ofEpochSecond(Long.parseLong(value));
+        }
+
+        try {
+            return OffsetDateTime.parse(value).toInstant();
+        } catch (DateTimeParseException ignored) {
+        }
+        try {
+            return LocalDateTime.parse(value.replace(' ', 'T')).toInstant(ZoneOffset.UTC);
+        } catch (DateTimeParseException ignored) {
+        }
+        try {
+            // A bare date means the end of that day, so anything submitted on it counts
+            return LocalDate.parse(value).plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC).minusMillis(1);
+        } catch (DateTimeParseException ignored) {
+        }
+        return null;
+    }
+}
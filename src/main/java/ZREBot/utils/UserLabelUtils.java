@@ -0,0 +1,47 @@
+package ZREBot.utils;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.User;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class UserLabelUtils {
+
+    // Resolves a display label for each user ID without blocking the calling thread.
+    // Cached users are answered immediately, the rest are fetched concurrently, and anything
+    // still outstanding at the deadline falls back to a mention, which Discord renders client-side
+    public static CompletableFuture<Map<String, String>> resolveLabels(JDA jda, Collection<String> userIds, long timeoutMillis) {
+        Map<String, String> labels = new ConcurrentHashMap<>();
+        CompletableFuture<?>[] lookups = new CompletableFuture<?>[userIds.size()];
+        int pending = 0;
+
+        for (String userId : new LinkedHashSet<>(userIds)) {
+            User cached = jda.getUserById(userId);
+            if (cached != null) {
+                labels.put(userId, "**" + cached.getName() + "**");
+                continue;
+            }
+
+            lookups[pending++] = jda.retrieveUserById(userId).submit().handle((user, error) -> {
+                labels.put(userId, user != null ? "**" + user.getName() + "**" : "Unknown user (ID: " + userId + ")");
+                return null;
+            });
+        }
+
+        CompletableFuture<Void> all = CompletableFuture.allOf(Arrays.copyOf(lookups, pending));
+        return all.completeOnTimeout(null, timeoutMillis, TimeUnit.MILLISECONDS).thenApply(unused -> {
+            Map<String, String> result = new LinkedHashMap<>();
+            for (String userId : userIds) {
+                result.put(userId, labels.getOrDefault(userId, "<@" + userId + ">"));
+            }
+            return result;
+        });
+    }
+}
@@ -0,0 +1,79 @@
+package ZREBot.database;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptivePoolSizerTest {
+    private final AtomicInteger poolSize = new AtomicInteger(4);
+    private final DatabaseExecutor executor = new DatabaseExecutor(2, 10);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void growsPoolAndExecutorWhenQueriesQueue() throws InterruptedException {
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(poolConfig(), new PoolMetrics(), executor, 4, 8, 10);
+        CountDownLatch started = new CountDownLatch(2);
+        for (int i = 0; i < 4; i++) {
+            executor.run(() -> {
+                started.countDown();
+                awaitRelease();
+            });
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(2, executor.getQueueDepth());
+
+        sizer.adjust();
+
+        // Two queued queries grow the pool by two, and the executor keeps its two connection gap
+        assertEquals(6, poolSize.get());
+        assertEquals(4, executor.getThreads());
+    }
+
+    @Test
+    void shrinksBothBackAfterQuietIntervals() {
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(poolConfig(), new PoolMetrics(), executor, 4, 8, 10);
+        poolSize.set(6);
+        executor.resize(4);
+
+        for (int i = 0; i < 4; i++) {
+            sizer.adjust();
+        }
+
+        assertEquals(5, poolSize.get());
+        assertEquals(3, executor.getThreads());
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HikariConfigMXBean poolConfig() {
+        return (HikariConfigMXBean) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{HikariConfigMXBean.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getMaximumPoolSize" -> poolSize.get();
+                    case "setMaximumPoolSize" -> {
+                        poolSize.set((Integer) args[0]);
+                        yield null;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,59 @@
+package ZREBot.database;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyHistogramTest {
+    @Test
+    void bucketsByPowersOfTwoMicroseconds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(500);
+        histogram.recordNanos(1_000);
+        histogram.recordNanos(1_000_000);
+
+        long[] snapshot = histogram.snapshot();
+        assertEquals(1, snapshot[0]);
+        assertEquals(1, snapshot[1]);
+        assertEquals(1, snapshot[10]);
+        assertEquals(3, LatencyHistogram.count(snapshot));
+        assertEquals(1_000, histogram.getMaxMicros());
+    }
+
+    @Test
+    void percentilesReportTheBucketUpperBound() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.recordNanos(1_000);
+        }
+        histogram.recordNanos(1_000_000);
+
+        long[] snapshot = histogram.snapshot();
+        assertEquals(2, LatencyHistogram.percentileMicros(snapshot, 0.5));
+        assertEquals(2, LatencyHistogram.percentileMicros(snapshot, 0.99));
+        assertEquals(1_024, LatencyHistogram.percentileMicros(snapshot, 1.0));
+        assertEquals(0, LatencyHistogram.percentileMicros(new long[snapshot.length], 0.99));
+    }
+
+    @Test
+    void differenceCountsOnlyTheInterval() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(1_000);
+        long[] previous = histogram.snapshot();
+        histogram.recordNanos(1_000_000);
+
+        long[] window = LatencyHistogram.difference(histogram.snapshot(), previous);
+        assertEquals(1, LatencyHistogram.count(window));
+        assertEquals(1_024, LatencyHistogram.percentileMicros(window, 0.5));
+        assertEquals(2, LatencyHistogram.count(LatencyHistogram.difference(histogram.snapshot(), null)));
+    }
+
+    @Test
+    void hugeSamplesLandInTheLastBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(Long.MAX_VALUE);
+        long[] snapshot = histogram.snapshot();
+        assertEquals(1, snapshot[snapshot.length - 1]);
+        assertEquals("500us", LatencyHistogram.formatMicros(500));
+    }
+}
@@ -0,0 +1,90 @@
+package ZREBot.repositories;
+
+import ZREBot.models.EventNameData;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventNameCacheTest {
+    private static final long HOUR = 3_600_000;
+
+    @Test
+    void cachesNamesAndMissingNames() {
+        EventNameCache cache = new EventNameCache(10, HOUR);
+        cache.put("1", new EventNameData("1", "alpha", 0));
+        cache.put("2", null);
+
+        assertEquals("alpha", cache.get("1").getData().getName());
+        EventNameCache.Lookup missing = cache.get("2");
+        assertNotNull(missing);
+        assertNull(missing.getData());
+        assertNull(cache.get("3"));
+    }
+
+    @Test
+    void expiredEntriesMiss() {
+        EventNameCache cache = new EventNameCache(10, -1);
+        cache.put("1", new EventNameData("1", "alpha", 0));
+        assertNull(cache.get("1"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void admitsNewcomerOnlyWhenAskedForMoreOftenThanTheVictim() {
+        EventNameCache cache = new EventNameCache(2, HOUR);
+        cache.put("a", new EventNameData("a", "alpha", 0));
+        cache.put("b", new EventNameData("b", "beta", 0));
+        for (int i = 0; i < 3; i++) {
+            cache.get("a");
+            cache.get("b");
+        }
+        assertTrue(cache.isFull());
+
+        // Seen once, against a victim seen three times
+        cache.get("c");
+        cache.put("c", new EventNameData("c", "gamma", 0));
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("b"));
+
+        for (int i = 0; i < 10; i++) {
+            cache.get("c");
+        }
+        cache.put("c", new EventNameData("c", "gamma", 0));
+        assertEquals(2, cache.size());
+        assertEquals("gamma", cache.get("c").getData().getName());
+        // a was the least recently used entry when c came in
+        assertNull(cache.get("a"));
+        assertNotNull(cache.get("b"));
+    }
+
+    @Test
+    void readsThatRacedAnInvalidationAreNotCached() {
+        EventNameCache cache = new EventNameCache(10, HOUR);
+        long readGeneration = cache.getGeneration();
+        cache.invalidate("1");
+        cache.putIfUnchanged("1", new EventNameData("1", "stale", 0), readGeneration);
+        assertNull(cache.get("1"));
+
+        cache.putIfUnchanged("1", new EventNameData("1", "fresh", 0), cache.getGeneration());
+        assertEquals("fresh", cache.get("1").getData().getName());
+    }
+
+    @Test
+    void invalidateIfChangedKeepsMatchingEntries() {
+        EventNameCache cache = new EventNameCache(10, HOUR);
+        cache.put("1", new EventNameData("1", "alpha", 0));
+        long generation = cache.getGeneration();
+
+        cache.invalidateIfChanged("1", "alpha");
+        assertEquals(generation, cache.getGeneration());
+        assertNotNull(cache.get("1"));
+
+        cache.invalidateIfChanged("1", "beta");
+        assertTrue(cache.getGeneration() > generation);
+        assertNull(cache.get("1"));
+    }
+}
@@ -0,0 +1,126 @@
+package ZREBot.repositories;
+
+import ZREBot.models.EventNameData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventNameLogStoreTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysPutsAndRemovesOnReopen() {
+        Path log = dir.resolve("names.log");
+        EventNameLogStore store = new EventNameLogStore(log);
+        assertTrue(store.put(new EventNameData("1", "alpha", 100)));
+        assertTrue(store.put(new EventNameData("2", "beta", 200)));
+        assertTrue(store.remove("1"));
+        assertTrue(store.put(new EventNameData("2", "gamma", 300)));
+
+        EventNameLogStore reopened = new EventNameLogStore(log);
+        assertEquals(1, reopened.size());
+        assertNull(reopened.get("1"));
+        assertEquals("gamma", reopened.get("2").getName());
+        assertEquals(300, reopened.get("2").getTimestamp());
+    }
+
+    @Test
+    void putAllIsReplayedAsOneBatch() {
+        Path log = dir.resolve("names.log");
+        EventNameLogStore store = new EventNameLogStore(log);
+        assertTrue(store.putAll(List.of(new EventNameData("1", "alpha", 1), new EventNameData("2", "beta", 2), new EventNameData("3", "ünïcode", 3))));
+
+        EventNameLogStore reopened = new EventNameLogStore(log);
+        assertEquals(3, reopened.size());
+        assertEquals("ünïcode", reopened.get("3").getName());
+    }
+
+    @Test
+    void truncatesTornTailAndKeepsAppending() throws IOException {
+        Path log = dir.resolve("names.log");
+        EventNameLogStore store = new EventNameLogStore(log);
+        store.put(new EventNameData("1", "alpha", 1));
+        store.put(new EventNameData("2", "beta", 2));
+        long intactSize = Files.size(log);
+
+        // A record header promising more bytes than the file holds, as a crash mid-append leaves it
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(7).putInt(40).put((byte) 1).putShort((short) 0).flip());
+        }
+
+        EventNameLogStore reopened = new EventNameLogStore(log);
+        assertEquals(2, reopened.size());
+        assertEquals(intactSize, Files.size(log));
+
+        assertTrue(reopened.put(new EventNameData("3", "gamma", 3)));
+        EventNameLogStore again = new EventNameLogStore(log);
+        assertEquals(3, again.size());
+        assertEquals("gamma", again.get("3").getName());
+    }
+
+    @Test
+    void dropsRecordWithBadChecksum() throws IOException {
+        Path log = dir.resolve("names.log");
+        EventNameLogStore store = new EventNameLogStore(log);
+        store.put(new EventNameData("1", "alpha", 1));
+        store.put(new EventNameData("2", "beta", 2));
+
+        byte[] bytes = Files.readAllBytes(log);
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(log, bytes);
+
+        EventNameLogStore reopened = new EventNameLogStore(log);
+        assertEquals(1, reopened.size());
+        assertEquals("alpha", reopened.get("1").getName());
+        assertNull(reopened.get("2"));
+    }
+
+    @Test
+    void compactionKeepsOnlyLiveEntries() throws IOException {
+        Path log = dir.resolve("names.log");
+        EventNameLogStore store = new EventNameLogStore(log);
+        for (int i = 0; i < 100; i++) {
+            store.put(new EventNameData("1", "name" + i, i));
+        }
+        store.put(new EventNameData("2", "beta", 1));
+        store.remove("2");
+        long before = Files.size(log);
+
+        store.compact();
+        assertTrue(Files.size(log) < before);
+        assertFalse(Files.exists(dir.resolve("names.log.compact")));
+
+        // Writes after compaction go to the new file
+        store.put(new EventNameData("3", "gamma", 1));
+        EventNameLogStore reopened = new EventNameLogStore(log);
+        assertEquals(2, reopened.size());
+        assertEquals("name99", reopened.get("1").getName());
+        assertEquals("gamma", reopened.get("3").getName());
+    }
+
+    @Test
+    void removeIfUnchangedLeavesNewerWrites() {
+        EventNameLogStore store = new EventNameLogStore(dir.resolve("names.log"));
+        EventNameData queued = new EventNameData("1", "alpha", 1);
+        store.put(queued);
+        store.put(new EventNameData("1", "beta", 2));
+
+        assertFalse(store.removeIfUnchanged(queued));
+        assertEquals("beta", store.get("1").getName());
+        assertTrue(store.removeIfUnchanged(store.get("1")));
+        assertNull(store.get("1"));
+    }
+}
@@ -0,0 +1,65 @@
+package ZREBot.repositories;
+
+import ZREBot.models.EventNameData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventNameReplicaTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void writesGoToPostgresWhileItIsUp() {
+        EventNameReplica replica = replica();
+        assertNull(replica.queueWrites(Map.of("1", "alpha"), new HashMap<>()));
+    }
+
+    @Test
+    void queueingSkipsNamesHeldByOtherUsers() {
+        EventNameReplica replica = replica();
+        replica.applySaved(List.of(new EventNameData("1", "alpha", 100)));
+        replica.enterDegradedMode(null);
+
+        Map<String, String> names = new LinkedHashMap<>();
+        names.put("1", "Alpha");
+        names.put("2", "ＡＬＰＨＡ");
+        names.put("3", "beta");
+        names.put("4", "Beta ");
+        Map<String, String> taken = new HashMap<>();
+        Map<String, EventNameData> queued = replica.queueWrites(names, taken);
+
+        // Re-saving your own name is fine; the first claim in a batch wins over later ones
+        assertEquals(Map.of("2", "ＡＬＰＨＡ", "4", "Beta "), taken);
+        assertEquals(Set.of("1", "3"), queued.keySet());
+        assertEquals(2, replica.getPendingCount());
+        assertEquals("3", replica.findByName("beta").get(0).getUserId());
+    }
+
+    @Test
+    void batchWithOnlyTakenNamesQueuesNothing() {
+        EventNameReplica replica = replica();
+        replica.applySaved(List.of(new EventNameData("1", "alpha", 100)));
+        replica.enterDegradedMode(null);
+
+        Map<String, String> taken = new HashMap<>();
+        assertTrue(replica.queueWrites(Map.of("2", "alpha"), taken).isEmpty());
+        assertEquals(Map.of("2", "alpha"), taken);
+        assertEquals(0, replica.getPendingCount());
+    }
+
+    private EventNameReplica replica() {
+        // A probe interval this long never fires during a test
+        return new EventNameReplica(dir.resolve("replica.log"), dir.resolve("pending.log"), dir.resolve("parked.log"), 3600, 10);
+    }
+}
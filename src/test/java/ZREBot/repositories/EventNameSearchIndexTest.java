@@ -0,0 +1,96 @@
+package ZREBot.repositories;
+
+import ZREBot.models.EventNameData;
+import ZREBot.models.EventNameSearchCursor;
+import ZREBot.models.EventNameSearchPage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventNameSearchIndexTest {
+    @Test
+    void trigramsArePaddedLikePgTrgm() {
+        assertEquals(Set.of("  c", " ca", "cat", "at "), EventNameSearchIndex.trigrams("Cat"));
+        assertEquals(Set.of("  a", " a ", "  b", " b "), EventNameSearchIndex.trigrams("a-b"));
+    }
+
+    @Test
+    void similarityMatchesPgTrgm() {
+        // SELECT similarity('word', 'two words') = 0.36363637, similarity('word', 'words') = 0.5714286
+        assertEquals(0.36363637f, (float) EventNameSearchIndex.similarity(EventNameSearchIndex.trigrams("word"), EventNameSearchIndex.trigrams("two words")));
+        assertEquals(0.5714286f, (float) EventNameSearchIndex.similarity(EventNameSearchIndex.trigrams("word"), EventNameSearchIndex.trigrams("words")));
+        assertEquals(1f, (float) EventNameSearchIndex.similarity(EventNameSearchIndex.trigrams("word"), EventNameSearchIndex.trigrams("WORD")));
+        assertEquals(0f, (float) EventNameSearchIndex.similarity(EventNameSearchIndex.trigrams("word"), EventNameSearchIndex.trigrams("")));
+    }
+
+    @Test
+    void ranksByScoreThenNameThenUserId() {
+        EventNameSearchIndex index = new EventNameSearchIndex();
+        index.put(new EventNameData("3", "words", 0));
+        index.put(new EventNameData("2", "word", 0));
+        index.put(new EventNameData("1", "word", 0));
+        index.put(new EventNameData("4", "two words", 0));
+        index.put(new EventNameData("5", "unrelated", 0));
+
+        List<EventNameData> results = index.searchPage("word", 0.3, null, 10).getResults();
+        assertEquals(List.of("1", "2", "3", "4"), userIds(results));
+    }
+
+    @Test
+    void includesSubstringMatchesBelowThreshold() {
+        EventNameSearchIndex index = new EventNameSearchIndex();
+        index.put(new EventNameData("1", "xxxalphaxxxyyyzzz", 0));
+
+        assertEquals(List.of("1"), userIds(index.searchPage("alpha", 0.9, null, 10).getResults()));
+        assertTrue(index.searchPage("omega", 0.3, null, 10).isEmpty());
+    }
+
+    @Test
+    void pagesThroughEveryMatchOnce() {
+        EventNameSearchIndex index = new EventNameSearchIndex();
+        for (int i = 0; i < 25; i++) {
+            index.put(new EventNameData(String.valueOf(i), "player" + (i % 7), 0));
+        }
+        List<String> expected = userIds(index.searchPage("player", 0.3, null, 100).getResults());
+        assertEquals(25, expected.size());
+
+        List<String> paged = new ArrayList<>();
+        EventNameSearchCursor cursor = null;
+        EventNameSearchPage page;
+        do {
+            page = index.searchPage("player", 0.3, cursor, 4);
+            paged.addAll(userIds(page.getResults()));
+            cursor = page.getNextCursor();
+        } while (page.hasMore());
+
+        assertEquals(expected, paged);
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    void updatesAndRemovalsReplaceOldTrigrams() {
+        EventNameSearchIndex index = new EventNameSearchIndex();
+        index.put(new EventNameData("1", "alpha", 0));
+        index.put(new EventNameData("1", "omega", 0));
+        assertTrue(index.searchPage("alpha", 0.3, null, 10).isEmpty());
+        assertEquals(1, index.searchPage("omega", 0.3, null, 10).getResults().size());
+
+        index.remove("1");
+        assertEquals(0, index.size());
+        assertTrue(index.searchPage("omega", 0.3, null, 10).isEmpty());
+    }
+
+    private static List<String> userIds(List<EventNameData> results) {
+        List<String> userIds = new ArrayList<>();
+        for (EventNameData data : results) {
+            userIds.add(data.getUserId());
+        }
+        return userIds;
+    }
+}
@@ -0,0 +1,90 @@
+package ZREBot.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExactNameLookupTest {
+    private final List<String> preparedSql = new ArrayList<>();
+    private final Map<Integer, String> bound = new HashMap<>();
+
+    @Test
+    void exactNameLookupFiltersOnNormalizedColumn() throws SQLException {
+        PostgresEventNameRepository.prepareExactName(recordingConnection(), "  Ｐｌａｙｅｒ  ONE ");
+
+        assertEquals(1, preparedSql.size());
+        assertTrue(preparedSql.get(0).contains("WHERE event_name_normalized = ?"));
+        assertFalse(preparedSql.get(0).toLowerCase().contains("lower("));
+        assertEquals(Map.of(1, "player one"), bound);
+    }
+
+    @Test
+    void exactUserAndNameLookupFiltersOnUserAndNormalizedColumn() throws SQLException {
+        PostgresEventNameRepository.prepareExactUserAndName(recordingConnection(), "123", "𝐏𝐥𝐚𝐲𝐞𝐫 One");
+
+        assertTrue(preparedSql.get(0).contains("WHERE user_id = ? AND event_name_normalized = ?"));
+        assertEquals(Map.of(1, "123", 2, "player one"), bound);
+    }
+
+    // Runs against a real server, e.g. TEST_DATABASE_URL=jdbc:postgresql://localhost/zre?user=zre&password=zre
+    @Test
+    @EnabledIfEnvironmentVariable(named = "TEST_DATABASE_URL", matches = ".+")
+    void exactLookupsCanUseTheirIndexes() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(System.getenv("TEST_DATABASE_URL"))) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                // Temporary tables shadow the real ones for this session only
+                stmt.execute("""
+                    CREATE TEMP TABLE event_names (
+                        user_id VARCHAR(20) PRIMARY KEY,
+                        event_name VARCHAR(50) NOT NULL,
+                        event_name_normalized TEXT,
+                        created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+                    ) ON COMMIT DROP
+                    """);
+                stmt.execute("CREATE INDEX idx_event_names_event_name_normalized ON event_names(event_name_normalized)");
+                stmt.execute("""
+                    INSERT INTO event_names (user_id, event_name, event_name_normalized)
+                    SELECT i::text, 'player ' || i, 'player ' || i FROM generate_series(1, 5000) AS i
+                    """);
+                stmt.execute("ANALYZE event_names");
+
+                assertEquals(List.of(), PostgresEventNameRepository.findUnindexedExactLookups(conn));
+            } finally {
+                conn.rollback();
+            }
+        }
+    }
+
+    private Connection recordingConnection() {
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("setString")) {
+                        bound.put((Integer) args[0], (String) args[1]);
+                    }
+                    return null;
+                });
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("prepareStatement")) {
+                        preparedSql.add((String) args[0]);
+                        return statement;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,140 @@
+package ZREBot.services;
+
+import ZREBot.config.BotConfig;
+import ZREBot.models.MessageReactors;
+import net.dv8tion.jda.api.utils.TimeUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReactorIndexServiceTest {
+    // One of the built-in void check channels
+    private static final String CHANNEL = "1269416717994426528";
+
+    private final ReactorIndexService index = new ReactorIndexService(new BotConfig());
+    private final String messageId = Long.toUnsignedString(TimeUtil.getDiscordTimestamp(System.currentTimeMillis()));
+
+    @Test
+    void newMessagesInTrackedChannelsStartComplete() {
+        index.trackNewMessage(CHANNEL, messageId);
+        index.onReactionAdd(messageId, "ZRE", 1);
+
+        MessageReactors reactors = index.getCompleted(messageId);
+        assertNotNull(reactors);
+        assertEquals(Set.of("1"), reactors.getUserIds());
+        assertTrue(index.isReactor(messageId, "1"));
+        assertFalse(index.isReactor(messageId, "2"));
+    }
+
+    @Test
+    void untrackedChannelsAreIgnored() {
+        index.trackNewMessage("1", messageId);
+        assertNull(index.getCompleted(messageId));
+        assertNull(index.isReactor(messageId, "1"));
+    }
+
+    @Test
+    void backfillIsOnlyTrustedOnceComplete() {
+        MessageReactors reactors = index.beginBackfill(CHANNEL, messageId);
+        reactors.addBackfilledReaction("ZRE", 1);
+
+        assertNull(index.getCompleted(messageId));
+        assertNull(index.isReactor(messageId, "1"));
+
+        index.completeBackfill(reactors, reactors.getEpoch());
+        assertSame(reactors, index.getCompleted(messageId));
+        assertTrue(index.isReactor(messageId, "1"));
+    }
+
+    @Test
+    void liveEventsDuringBackfillWinOverStalePages() {
+        MessageReactors reactors = index.beginBackfill(CHANNEL, messageId);
+        index.onReactionRemove(messageId, "ZRE", 1);
+        index.onReactionAdd(messageId, "ZRE", 2);
+
+        // Pages fetched before those events still list user 1 and miss user 2
+        reactors.addBackfilledReaction("ZRE", 1);
+        reactors.addBackfilledReaction("ZRE", 3);
+        index.completeBackfill(reactors, reactors.getEpoch());
+
+        assertEquals(Set.of("2", "3"), index.getCompleted(messageId).getUserIds());
+    }
+
+    @Test
+    void removingOneEmojiKeepsUsersWithOthers() {
+        index.trackNewMessage(CHANNEL, messageId);
+        index.onReactionAdd(messageId, "ZRE", 1);
+        index.onReactionAdd(messageId, "👍", 1);
+        index.onReactionAdd(messageId, "👍", 2);
+
+        index.onReactionRemove(messageId, "ZRE", 1);
+        assertTrue(index.isReactor(messageId, "1"));
+
+        index.onReactionRemoveEmoji(messageId, "👍");
+        assertFalse(index.isReactor(messageId, "1"));
+        assertFalse(index.isReactor(messageId, "2"));
+    }
+
+    @Test
+    void removeAllClearsButKeepsTheIndexComplete() {
+        index.trackNewMessage(CHANNEL, messageId);
+        index.onReactionAdd(messageId, "ZRE", 1);
+        index.onReactionRemoveAll(messageId);
+
+        assertNotNull(index.getCompleted(messageId));
+        assertTrue(index.getCompleted(messageId).getUserIds().isEmpty());
+    }
+
+    @Test
+    void resetForgetsReactorsUntilBackfilledAgain() {
+        index.trackNewMessage(CHANNEL, messageId);
+        index.onReactionAdd(messageId, "ZRE", 1);
+
+        index.resetAll();
+        assertNull(index.getCompleted(messageId));
+        assertNull(index.isReactor(messageId, "1"));
+
+        // Events after the reconnect are still recorded for the next backfill
+        index.onReactionAdd(messageId, "ZRE", 2);
+        MessageReactors reactors = index.beginBackfill(CHANNEL, messageId);
+        reactors.addBackfilledReaction("ZRE", 3);
+        index.completeBackfill(reactors, reactors.getEpoch());
+        assertEquals(Set.of("2", "3"), index.getCompleted(messageId).getUserIds());
+    }
+
+    @Test
+    void backfillStartedBeforeResetIsDiscarded() {
+        MessageReactors reactors = index.beginBackfill(CHANNEL, messageId);
+        long epoch = reactors.getEpoch();
+        reactors.addBackfilledReaction("ZRE", 1);
+
+        index.resetAll();
+        reactors.addBackfilledReaction("ZRE", 1);
+        index.completeBackfill(reactors, epoch);
+
+        assertNull(index.getCompleted(messageId));
+        assertNull(index.isReactor(messageId, "1"));
+    }
+
+    @Test
+    void discardAndDeleteDropTheIndex() {
+        index.beginBackfill(CHANNEL, messageId);
+        index.discardBackfill(messageId);
+        assertNull(index.isReactor(messageId, "1"));
+
+        index.trackNewMessage(CHANNEL, messageId);
+        // A finished index is not thrown away by a failed backfill
+        index.discardBackfill(messageId);
+        assertNotNull(index.getCompleted(messageId));
+
+        index.onMessageDelete(messageId);
+        assertNull(index.getCompleted(messageId));
+    }
+}
@@ -0,0 +1,98 @@
+package ZREBot.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VoidCheckSchedulerTest {
+    private final List<String> started = new ArrayList<>();
+    private final List<CompletableFuture<String>> running = new ArrayList<>();
+
+    @Test
+    void servesLanesRoundRobin() {
+        VoidCheckScheduler scheduler = new VoidCheckScheduler(1, 60_000);
+        VoidCheckScheduler.Lane first = scheduler.openLane("first", progress -> {});
+        VoidCheckScheduler.Lane second = scheduler.openLane("second", progress -> {});
+
+        first.submit(() -> task("a1"));
+        first.submit(() -> task("a2"));
+        first.submit(() -> task("a3"));
+        second.submit(() -> task("b1"));
+        second.submit(() -> task("b2"));
+        assertEquals(List.of("a1"), started);
+
+        for (int i = 0; i < 4; i++) {
+            running.get(i).complete("done");
+        }
+        assertEquals(List.of("a1", "a2", "b1", "a3", "b2"), started);
+    }
+
+    @Test
+    void limitsRequestsInFlight() {
+        VoidCheckScheduler scheduler = new VoidCheckScheduler(2, 60_000);
+        VoidCheckScheduler.Lane lane = scheduler.openLane("lane", progress -> {});
+
+        CompletableFuture<String> result = lane.submit(() -> task("1"));
+        lane.submit(() -> task("2"));
+        lane.submit(() -> task("3"));
+        assertEquals(List.of("1", "2"), started);
+
+        running.get(0).complete("one");
+        assertEquals("one", result.join());
+        assertEquals(List.of("1", "2", "3"), started);
+    }
+
+    @Test
+    void failsQueuedWorkPastTheDeadline() throws InterruptedException {
+        VoidCheckScheduler scheduler = new VoidCheckScheduler(1, 50);
+        VoidCheckScheduler.Lane slow = scheduler.openLane("slow", progress -> {});
+        slow.submit(() -> task("slow"));
+
+        VoidCheckScheduler.Lane queued = scheduler.openLane("queued", progress -> {});
+        CompletableFuture<String> result = queued.submit(() -> task("queued"));
+        Thread.sleep(100);
+        running.get(0).complete("done");
+
+        CompletionException error = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertEquals(List.of("slow"), started);
+
+        CompletionException late = assertThrows(CompletionException.class, () -> queued.submit(() -> task("late")).join());
+        assertInstanceOf(TimeoutException.class, late.getCause());
+    }
+
+    @Test
+    void closedLaneCancelsWorkAndProgress() {
+        VoidCheckScheduler scheduler = new VoidCheckScheduler(1, 60_000);
+        List<String> progress = new ArrayList<>();
+        VoidCheckScheduler.Lane lane = scheduler.openLane("lane", progress::add);
+        lane.submit(() -> task("running"));
+        CompletableFuture<String> pending = lane.submit(() -> task("pending"));
+
+        lane.reportProgress("first");
+        lane.close();
+        lane.reportProgress("after close");
+
+        assertEquals(List.of("first"), progress);
+        assertThrows(CancellationException.class, pending::join);
+        assertTrue(lane.submit(() -> task("new")).isCompletedExceptionally());
+        assertEquals(List.of("running"), started);
+    }
+
+    private CompletableFuture<String> task(String name) {
+        started.add(name);
+        CompletableFuture<String> future = new CompletableFuture<>();
+        running.add(future);
+        return future;
+    }
+}
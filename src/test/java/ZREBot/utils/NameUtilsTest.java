@@ -0,0 +1,32 @@
+package ZREBot.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NameUtilsTest {
+    @Test
+    void foldsCaseAndWhitespace() {
+        assertEquals("foo bar", NameUtils.normalize("  Foo \t BAR "));
+        assertEquals("foo bar", NameUtils.normalize("foo 　bar"));
+    }
+
+    @Test
+    void foldsCompatibilityCharacters() {
+        assertEquals("foo bar", NameUtils.normalize("Ｆｏｏ Ｂａｒ"));
+        assertEquals("foo", NameUtils.normalize("𝐅𝐨𝐨"));
+        assertEquals("fi", NameUtils.normalize("ﬁ"));
+    }
+
+    @Test
+    void storedNameOnlyLowercasesAndFoldsWhitespace() {
+        assertEquals("ｆｏｏ bar", NameUtils.toStoredName("Ｆｏｏ   Bar "));
+    }
+
+    @Test
+    void nullStaysNull() {
+        assertNull(NameUtils.normalize(null));
+        assertNull(NameUtils.toStoredName(null));
+    }
+}
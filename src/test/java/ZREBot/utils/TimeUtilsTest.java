@@ -0,0 +1,38 @@
+package ZREBot.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TimeUtilsTest {
+    @Test
+    void parsesDiscordTimestampsAndUnixSeconds() {
+        Instant expected = Instant.ofEpochSecond(1_700_000_000L);
+        assertEquals(expected, TimeUtils.parseInstant("<t:1700000000:f>"));
+        assertEquals(expected, TimeUtils.parseInstant("<t:1700000000>"));
+        assertEquals(expected, TimeUtils.parseInstant(" 1700000000 "));
+    }
+
+    @Test
+    void parsesIsoTimesAsUtcUnlessAnOffsetIsGiven() {
+        assertEquals(Instant.parse("2024-05-01T12:00:00Z"), TimeUtils.parseInstant("2024-05-01T12:00:00Z"));
+        assertEquals(Instant.parse("2024-05-01T10:00:00Z"), TimeUtils.parseInstant("2024-05-01T12:00:00+02:00"));
+        assertEquals(Instant.parse("2024-05-01T12:00:00Z"), TimeUtils.parseInstant("2024-05-01 12:00"));
+    }
+
+    @Test
+    void bareDateMeansTheEndOfThatDay() {
+        assertEquals(Instant.parse("2024-05-01T23:59:59.999Z"), TimeUtils.parseInstant("2024-05-01"));
+    }
+
+    @Test
+    void rejectsAnythingElse() {
+        assertNull(TimeUtils.parseInstant(null));
+        assertNull(TimeUtils.parseInstant("yesterday"));
+        assertNull(TimeUtils.parseInstant("<t:abc:f>"));
+        assertNull(TimeUtils.parseInstant("2024-13-01"));
+    }
+}